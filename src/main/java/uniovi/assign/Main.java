@@ -11,6 +11,8 @@ import uniovi.assign.model.SubjectClass;
 import uniovi.assign.parser.Parser;
 import uniovi.assign.parser.ParserImpl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -23,13 +25,23 @@ public class Main {
 
     public static void main(String[] args) {
 
-        if (args.length == 2) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        String checkpointToResume = null;
+        int resumeOption = arguments.indexOf("--resume");
+        if (resumeOption >= 0 && resumeOption + 1 < arguments.size()) {
+            checkpointToResume = arguments.remove(resumeOption + 1);
+            arguments.remove(resumeOption);
+        }
+
+        if (arguments.size() == 2 || arguments.size() == 3) {
 
-            String enrollmentFile = args[0];
-            String scheduleFile = args[1];
+            String enrollmentFile = arguments.get(0);
+            String scheduleFile = arguments.get(1);
 
             Parser parser = new ParserImpl();
-            GeneticParameters geneticParameters = parser.parseGeneticAlgorithmParams("geneticParameters.properties");
+            // Each process of a multi-process execution can use its own parameters file
+            String parametersFile = arguments.size() == 3 ? arguments.get(2) : "geneticParameters.properties";
+            GeneticParameters geneticParameters = parser.parseGeneticAlgorithmParams(parametersFile);
 
             List<Group> groups = parser.parseScheduleFile(scheduleFile);
             Map<String, Group> groupMap = groups.parallelStream().collect(Collectors.toMap(Group::getGroupId, group -> group));
@@ -44,7 +56,7 @@ public class Main {
             Map<String, List<String>> mandatoryCollisions = parser.parseConfigurationCSV("mandatoryCollisions");
             Map<Group, List<Group>> assigmentPreferences = parser.parseAssigmentPreferences("preferences", groupMap);
 
-            CollisionMatrix collisionMatrix = new CollisionMatrix(groups, collisionExceptions, mandatoryCollisions);
+            CollisionMatrix collisionMatrix = new CollisionMatrix(groups, collisionExceptions, mandatoryCollisions, geneticParameters.isSparseCollisionMatrix());
 
             GreedyAlgorithm algorithm = GreedyAlgorithm.getInstance();
 
@@ -55,10 +67,13 @@ public class Main {
             InputThread inputThread = new InputThread(generateResults);
             inputThread.start();
             GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(planification, geneticParameters, generateResults);
+            if (checkpointToResume != null) {
+                geneticAlgorithm.resume(checkpointToResume);
+            }
             geneticAlgorithm.execute();
             inputThread.interrupt();
         } else {
-            System.err.println("ERROR: Input parameters missing. Try executing java -jar assignStudents <enrollmentFile> <scheduleFile>");
+            System.err.println("ERROR: Input parameters missing. Try executing java -jar assignStudents <enrollmentFile> <scheduleFile> [geneticParametersFile] [--resume <checkpointFile>]");
             System.exit(1);
         }
 
@@ -0,0 +1,344 @@
+package uniovi.assign.genetic;
+
+import uniovi.assign.genetic.encoding.Encoder;
+import uniovi.assign.genetic.population.Individual;
+import uniovi.assign.greedy.CompiledPlanification;
+import uniovi.assign.model.Assignment;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * State of a running execution of the genetic algorithm that can be saved to a binary file and resumed later.
+ * It contains the next generation to execute, the individuals of each population with their fitness and the
+ * statistics of their evaluation, and the time series shown in the charts of the reporter, so the execution
+ * continues without evaluating again any individual.
+ * <p>
+ * The file is written to a temporary file that is synced to disk and then renamed over the previous checkpoint,
+ * so a process killed while saving always leaves a complete checkpoint behind.
+ * <p>
+ * The checkpoint also stores the student and the subject class encoded by each gene, so its chromosomes can
+ * be mapped to the genes of a planification with a different enrollment to warm-start another execution.
+ */
+class AlgorithmCheckpoint {
+
+    private static final int MAGIC = 0x47414350;
+    private static final int VERSION = 2;
+
+    private final int nextGeneration;
+    private final List<List<Individual>> populations;
+    private final double[][] timeSeries;
+
+    /**
+     * Default constructor for a checkpoint.
+     *
+     * @param nextGeneration number of the first generation that has not been executed.
+     * @param populations    individuals of each population, already evaluated.
+     * @param timeSeries     time series of the reporter.
+     */
+    AlgorithmCheckpoint(int nextGeneration, List<List<Individual>> populations, double[][] timeSeries) {
+        this.nextGeneration = nextGeneration;
+        this.populations = populations;
+        this.timeSeries = timeSeries;
+    }
+
+    int getNextGeneration() {
+        return nextGeneration;
+    }
+
+    List<List<Individual>> getPopulations() {
+        return populations;
+    }
+
+    double[][] getTimeSeries() {
+        return timeSeries;
+    }
+
+    /**
+     * Writes the checkpoint to a file, replacing it atomically if it already exists.
+     *
+     * @param file          path of the checkpoint file.
+     * @param planification compiled planification used for indexing the unsolved assignments.
+     * @throws IOException if the file cannot be written.
+     */
+    void write(String file, CompiledPlanification planification) throws IOException {
+        Path target = Paths.get(file).toAbsolutePath();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temporary.toFile())) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            List<String> keys = getGeneKeys(planification);
+            output.writeInt(keys.size());
+            for (String key : keys) {
+                output.writeUTF(key);
+            }
+            output.writeInt(nextGeneration);
+            output.writeInt(timeSeries.length);
+            for (double[] series : timeSeries) {
+                output.writeInt(series.length);
+                for (double value : series) {
+                    output.writeDouble(value);
+                }
+            }
+            output.writeInt(populations.size());
+            for (List<Individual> population : populations) {
+                output.writeInt(population.size());
+                for (Individual individual : population) {
+                    writeIndividual(output, individual, planification);
+                }
+            }
+            output.flush();
+            stream.getFD().sync();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the key of the assignment encoded by each gene: the id of the student and the name of the
+     * subject class, which identify the assignment in any planification. A student enrolled more than once in
+     * the same subject class has several assignments with the same key, so the repeated ones are numbered by
+     * their occurrence in the order of the variable assignments.
+     *
+     * @param planification compiled planification whose variable assignments are encoded by the chromosomes.
+     * @return key of each gene, different for each gene.
+     */
+    private static List<String> getGeneKeys(CompiledPlanification planification) {
+        List<String> keys = new ArrayList<>(planification.getNumberOfVariableAssignments());
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (Assignment assignment : planification.getVariableAssignments()) {
+            String key = assignment.getStudent().getId() + ";" + assignment.getSubjectClass().getSubjectName();
+            int occurrence = occurrences.merge(key, 1, Integer::sum);
+            keys.add(occurrence == 1 ? key : key + "#" + occurrence);
+        }
+        return keys;
+    }
+
+    /**
+     * Calculates a hash of the assignments encoded by the genes of a planification, so two processes can check
+     * that their chromosomes are interchangeable.
+     *
+     * @param planification compiled planification whose variable assignments are encoded by the chromosomes.
+     * @return 64 bits hash of the key of each gene.
+     */
+    static long getPlanificationHash(CompiledPlanification planification) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String key : getGeneKeys(planification)) {
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeIndividual(DataOutputStream output, Individual individual, CompiledPlanification planification) throws IOException {
+        output.writeDouble(individual.getFitness());
+        output.writeInt(individual.getTotalDifferenceBetweenGroups());
+        output.writeDouble(individual.getMaxDifferenceBetweenGroups());
+        output.writeDouble(individual.getVarianceBetweenDifferences());
+        output.writeDouble(individual.getMaxVariance());
+        output.writeDouble(individual.getTotalVariance());
+        output.writeDouble(individual.getTotalNumberOfFreeSlots());
+        output.writeDouble(individual.getTotalDaysWithLowNumOfClasses());
+        writeInts(output, individual.getEncoding());
+        List<Assignment> unsolved = individual.getUnsolvedAssignments();
+        writeInts(output, unsolved == null ? new int[0] : planification.toAssignmentIndexes(unsolved));
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        output.writeInt(values.length);
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads a checkpoint from a file.
+     *
+     * @param file          path of the checkpoint file.
+     * @param encoder       encoder used for decoding the chromosomes.
+     * @param planification compiled planification whose variable assignments are encoded by the chromosomes.
+     * @return the checkpoint read.
+     * @throws IOException if the file cannot be read or it was not written for this planification.
+     */
+    static AlgorithmCheckpoint read(String file, Encoder encoder, CompiledPlanification planification) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            readHeader(file, input);
+            if (!readKeys(input).equals(getGeneKeys(planification))) {
+                throw new IOException("The checkpoint does not belong to this planification");
+            }
+            int nextGeneration = input.readInt();
+            double[][] timeSeries = new double[input.readInt()][];
+            for (int i = 0; i < timeSeries.length; i++) {
+                timeSeries[i] = new double[input.readInt()];
+                for (int j = 0; j < timeSeries[i].length; j++) {
+                    timeSeries[i][j] = input.readDouble();
+                }
+            }
+            int numberOfPopulations = input.readInt();
+            List<List<Individual>> populations = new ArrayList<>(numberOfPopulations);
+            for (int i = 0; i < numberOfPopulations; i++) {
+                int size = input.readInt();
+                List<Individual> population = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    population.add(readIndividual(input, encoder, planification));
+                }
+                populations.add(population);
+            }
+            return new AlgorithmCheckpoint(nextGeneration, populations, timeSeries);
+        } catch (EOFException e) {
+            throw new IOException(file + " is truncated or is not a checkpoint", e);
+        }
+    }
+
+    /**
+     * Reads the chromosomes of a checkpoint saved by an execution whose planification may be different, to
+     * warm-start an execution of the current one. The genes are mapped to the current genes through the student
+     * and the subject class they encode, and the genes that no longer exist are removed, so the chromosomes
+     * returned may not contain all the current genes.
+     *
+     * @param file          path of the checkpoint file.
+     * @param planification compiled planification whose variable assignments are encoded by the chromosomes.
+     * @return chromosomes of all the populations ordered from the best fitness to the worst.
+     * @throws IOException if the file cannot be read.
+     */
+    static List<int[]> readChromosomes(String file, CompiledPlanification planification) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            readHeader(file, input);
+            Map<String, Integer> currentGenes = new HashMap<>();
+            List<String> currentKeys = getGeneKeys(planification);
+            for (int gene = 0; gene < currentKeys.size(); gene++) {
+                currentGenes.put(currentKeys.get(gene), gene);
+            }
+            List<String> keys = readKeys(input);
+            int[] geneMapping = new int[keys.size()];
+            for (int gene = 0; gene < geneMapping.length; gene++) {
+                geneMapping[gene] = currentGenes.getOrDefault(keys.get(gene), -1);
+            }
+
+            input.readInt();
+            int numberOfSeries = input.readInt();
+            for (int i = 0; i < numberOfSeries; i++) {
+                skipFully(input, input.readInt() * (long) Double.BYTES);
+            }
+            List<int[]> chromosomes = new ArrayList<>();
+            List<Double> fitnesses = new ArrayList<>();
+            int numberOfPopulations = input.readInt();
+            for (int i = 0; i < numberOfPopulations; i++) {
+                int size = input.readInt();
+                for (int j = 0; j < size; j++) {
+                    fitnesses.add(input.readDouble());
+                    skipFully(input, Integer.BYTES + 6 * Double.BYTES);
+                    chromosomes.add(mapGenes(readInts(input), geneMapping));
+                    skipFully(input, input.readInt() * (long) Integer.BYTES);
+                }
+            }
+            Integer[] order = new Integer[chromosomes.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(fitnesses::get));
+            List<int[]> sorted = new ArrayList<>(order.length);
+            for (int i : order) {
+                sorted.add(chromosomes.get(i));
+            }
+            return sorted;
+        } catch (EOFException e) {
+            throw new IOException(file + " is truncated or is not a checkpoint", e);
+        }
+    }
+
+    private static int[] mapGenes(int[] encoding, int[] geneMapping) throws IOException {
+        int[] genes = new int[encoding.length];
+        int length = 0;
+        for (int gene : encoding) {
+            if (gene < 0 || gene >= geneMapping.length) {
+                throw new IOException("The checkpoint is corrupted");
+            }
+            if (geneMapping[gene] >= 0) {
+                genes[length++] = geneMapping[gene];
+            }
+        }
+        return Arrays.copyOf(genes, length);
+    }
+
+    private static void readHeader(String file, DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException(file + " is not a checkpoint of this version of the algorithm");
+        }
+    }
+
+    private static List<String> readKeys(DataInputStream input) throws IOException {
+        int numberOfKeys = input.readInt();
+        List<String> keys = new ArrayList<>(numberOfKeys);
+        for (int i = 0; i < numberOfKeys; i++) {
+            keys.add(input.readUTF());
+        }
+        return keys;
+    }
+
+    private static void skipFully(DataInputStream input, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = input.skip(bytes);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            bytes -= skipped;
+        }
+    }
+
+    private static Individual readIndividual(DataInputStream input, Encoder encoder, CompiledPlanification planification) throws IOException {
+        double fitness = input.readDouble();
+        int totalDifferenceBetweenGroups = input.readInt();
+        double maxDifferenceBetweenGroups = input.readDouble();
+        double varianceBetweenDifferences = input.readDouble();
+        double maxVariance = input.readDouble();
+        double totalVariance = input.readDouble();
+        double totalNumberOfFreeSlots = input.readDouble();
+        double totalDaysWithLowNumOfClasses = input.readDouble();
+        int[] encoding = readInts(input);
+        int[] unsolved = readInts(input);
+        if (!GeneticAlgorithm.isPermutation(encoding, planification.getNumberOfVariableAssignments())) {
+            throw new IOException("The checkpoint does not belong to this planification");
+        }
+        List<Assignment> unsolvedAssignments = new ArrayList<>(unsolved.length);
+        for (int assignment : unsolved) {
+            if (assignment < 0 || assignment >= planification.getNumberOfAssignments()) {
+                throw new IOException("The checkpoint does not belong to this planification");
+            }
+            unsolvedAssignments.add(planification.getAssignment(assignment));
+        }
+
+        Individual individual = new Individual(encoder.decode(encoding));
+        individual.setEncoding(encoding);
+        individual.setFitness(fitness);
+        individual.setUnsolvedAssignments(unsolvedAssignments);
+        individual.setTotalDifferenceBetweenGroups(totalDifferenceBetweenGroups);
+        individual.setMaxDifferenceBetweenGroups(maxDifferenceBetweenGroups);
+        individual.setVarianceBetweenDifferences(varianceBetweenDifferences);
+        individual.setMaxVariance(maxVariance);
+        individual.setTotalVariance(totalVariance);
+        individual.setTotalNumberOfFreeSlots(totalNumberOfFreeSlots);
+        individual.setTotalDaysWithLowNumOfClasses(totalDaysWithLowNumOfClasses);
+        return individual;
+    }
+
+    private static int[] readInts(DataInputStream input) throws IOException {
+        int[] values = new int[input.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = input.readInt();
+        }
+        return values;
+    }
+}
@@ -8,17 +8,27 @@ import uniovi.assign.genetic.fitnessfunction.FitnessFunction;
 import uniovi.assign.genetic.fitnessfunction.FitnessFunctionImpl;
 import uniovi.assign.genetic.mutation.Mutation;
 import uniovi.assign.genetic.mutation.MutationImpl;
+import uniovi.assign.genetic.population.BestSoFar;
+import uniovi.assign.genetic.population.ChromosomeArena;
 import uniovi.assign.genetic.population.Individual;
 import uniovi.assign.genetic.population.Pair;
 import uniovi.assign.genetic.population.Population;
 import uniovi.assign.genetic.selection.RandomPairsSelection;
 import uniovi.assign.genetic.selection.Selection;
+import uniovi.assign.greedy.GreedyAlgorithm;
+import uniovi.assign.greedy.GreedyEvaluator;
 import uniovi.assign.model.*;
+import uniovi.assign.parser.ParserImpl;
 import uniovi.assign.reports.Reporter;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 
 /**
  * Class in charge of executing the genetic algorithm that generates
@@ -34,10 +44,15 @@ public class GeneticAlgorithm {
     private Mutation mutation;
     private FitnessFunction fitnessFunction;
     private Selection selection;
-    private Random random = new Random();
     private Reporter reporter;
     private GeneticParameters geneticParameters;
     private AtomicBoolean generateResults;
+    private ExecutorService executor;
+    private RemoteIslands remoteIslands;
+    private Termination termination;
+    private final BestSoFar bestSoFar = new BestSoFar();
+    private AlgorithmCheckpoint resumedCheckpoint;
+    private WarmStart warmStart;
 
     /**
      * Default constructor for the genetic algorithm. Initializes
@@ -50,7 +65,9 @@ public class GeneticAlgorithm {
     public GeneticAlgorithm(Planification planification, GeneticParameters geneticParameters, AtomicBoolean generateResults) {
         this.planification = planification;
         this.geneticParameters = geneticParameters;
-        this.allAssignments = generateAllAssignments();
+        generateAllAssignments();
+        // Assignments of subject classes with only one group are always made the same way, so they are not genes
+        this.allAssignments = GreedyAlgorithm.getInstance().getEvaluator().getPlanification().getVariableAssignments();
         this.encoder = new EncoderImpl(allAssignments);
         this.crossover = new OXCrossover();
         this.mutation = new MutationImpl();
@@ -60,81 +77,781 @@ public class GeneticAlgorithm {
         this.generateResults = generateResults;
     }
 
+    /**
+     * Resumes the execution saved in a checkpoint file instead of starting with random populations. It must be
+     * called before {@link #execute()}. If the checkpoint cannot be read the execution stops.
+     *
+     * @param checkpointFile path of the checkpoint file.
+     */
+    public void resume(String checkpointFile) {
+        try {
+            this.resumedCheckpoint = AlgorithmCheckpoint.read(checkpointFile, encoder, GreedyAlgorithm.getInstance().getEvaluator().getPlanification());
+            System.out.println("Resuming from generation " + resumedCheckpoint.getNextGeneration() + " of checkpoint " + checkpointFile);
+        } catch (IOException e) {
+            System.err.println("ERROR: Could not resume the checkpoint " + checkpointFile + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
     /**
      * Launches the execution of the genetic algorithm. It initializes
      * the initial population and generate a new population each generation
      * until the maximum number of generations has been reached.
      * It also calls the reporter in each generation and at the end of the execution
      * in order to give feedback to the user about the status of the algorithm.
+     * <p>
+     * If more than one worker is configured, the pairs of each generation are processed in parallel
+     * and the new population is built once all of them have finished. If more than one island is configured,
+     * the algorithm is executed with the island model instead, see {@link #executeIslands()}. The island model
+     * is also used when this process exchanges migrants with the islands of other processes, in which case only
+     * the coordinator process generates the final results, see {@link RemoteIslands}. Otherwise, if the steady
+     * state mode is configured the population evolves without generations, see {@link #executeSteadyState()}.
+     * <p>
+     * The execution stops early when one of the rules of {@link Termination} is met. Whenever it stops, even if
+     * it is interrupted or fails, the best solution found so far is written with the results of the algorithm.
+     * Every checkpoint interval generations the state of the execution is saved, so it can be resumed later.
+     * Unless a checkpoint is resumed, the initial populations can be seeded with the solution of a previous
+     * execution, see {@link WarmStart}.
      */
     public void execute() {
         this.reporter.initializeCharts();
         long startTime = System.currentTimeMillis();
-        createInitialPopulation();
-        //Calculate fitness of all individuals in the initial population
-        for (int i = 0; i < geneticParameters.getNumberOfGenerations(); i++) {
-
-            List<Individual> newPopulation = new ArrayList<>();
-
-            List<Pair> pairs = selection.selectPairs(population);
-            for (Pair pair : pairs) {
-                List<Individual> parentsAndDescendants = new ArrayList<>();
-                parentsAndDescendants.add(pair.getParent1());
-                parentsAndDescendants.add(pair.getParent2());
-                // CROSSOVER
-                if (random.nextFloat() <= geneticParameters.getCrossoverProb()) {
-                    List<int[]> descendants = crossover.crossover(pair);
-                    for (int[] descendant : descendants) {
-
-                        Individual descendantDecoded = new Individual(encoder.decode(descendant));
-                        // Mutation
-                        if (random.nextFloat() <= geneticParameters.getMutationProb()) {
-                            mutation.mutate(descendant);
-                        }
-                        descendantDecoded.setEncoding(descendant);
-                        descendantDecoded.setFitness(fitnessFunction.calculateFitness(descendantDecoded));
-                        parentsAndDescendants.add(descendantDecoded);
+        GreedyEvaluator evaluator = GreedyAlgorithm.getInstance().getEvaluator();
+        evaluator.setNumberOfCheckpoints(geneticParameters.getEvaluationCheckpoints());
+        evaluator.setCacheSize(geneticParameters.getEvaluationCacheSize());
+        evaluator.setStatistics(fitnessFunction.getRequiredStatistics());
+        evaluator.setRepairDepth(geneticParameters.getRepairDepth());
+        evaluator.setRepairBudget(geneticParameters.getRepairBudget());
+        evaluator.setConflictHeatmapEnabled(geneticParameters.isConflictHeatmap());
+        if (geneticParameters.getNumberOfWorkers() > 1) {
+            this.executor = Executors.newFixedThreadPool(geneticParameters.getNumberOfWorkers());
+        }
+        loadWarmStart();
+        this.remoteIslands = connectRemoteIslands();
+        this.termination = new Termination(geneticParameters);
+        Thread anytimeResults = new Thread(this::generateAnytimeResults, "anytime-results");
+        Runtime.getRuntime().addShutdownHook(anytimeResults);
+        try {
+            if (geneticParameters.getNumberOfIslands() > 1 || remoteIslands != null) {
+                executeIslands();
+            } else if (geneticParameters.isSteadyState()) {
+                executeSteadyState();
+            } else {
+                //Calculate fitness of all individuals in the initial population
+                this.population = resumedCheckpoint != null ? restorePopulation() : createInitialPopulation();
+                ChromosomeArena arena = new ChromosomeArena(allAssignments.size(), encoder);
+                offerBest(population);
+                for (int i = getFirstGeneration(); i < geneticParameters.getNumberOfGenerations(); i++) {
+                    this.population = evolve(population, arena);
+                    offerBest(population);
+                    report(population, i);
+                    saveCheckpoint(i + 1, Collections.singletonList(population));
+                    if (termination.shouldStop(i, population.getBestFitness())) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+        Runtime.getRuntime().removeShutdownHook(anytimeResults);
+        long executionTime = System.currentTimeMillis() - startTime;
+        System.out.println("EXECUTION TIME:" + executionTime);
+        if (remoteIslands == null || remoteIslands.isCoordinator()) {
+            reporter.generateAlgorithmResults(population, geneticParameters);
+        }
+        System.out.println("FINISHED");
+    }
+
+    /**
+     * Returns the first generation to execute, which is the one following the last generation saved in the
+     * resumed checkpoint. The time series of the reporter are also restored from the checkpoint.
+     *
+     * @return number of the first generation to execute.
+     */
+    private int getFirstGeneration() {
+        if (resumedCheckpoint == null) {
+            return 0;
+        }
+        reporter.restoreTimeSeries(resumedCheckpoint.getTimeSeries());
+        return resumedCheckpoint.getNextGeneration();
+    }
+
+    /**
+     * Builds a single population from the individuals of all the populations of the resumed checkpoint. The
+     * best individuals are kept and, if there are not enough, new random individuals are added.
+     *
+     * @return population of the configured size.
+     */
+    private Population restorePopulation() {
+        List<Individual> individuals = new ArrayList<>();
+        for (List<Individual> saved : resumedCheckpoint.getPopulations()) {
+            individuals.addAll(saved);
+        }
+        individuals.sort(Comparator.comparingDouble(Individual::getFitness));
+        individuals = new ArrayList<>(individuals.subList(0, Math.min(individuals.size(), geneticParameters.getPopulationSize())));
+        while (individuals.size() < geneticParameters.getPopulationSize()) {
+            Individual individual = generateIndividual();
+            individual.setFitness(fitnessFunction.calculateFitness(individual));
+            individuals.add(individual);
+        }
+        return new Population(individuals);
+    }
+
+    /**
+     * Saves the state of the execution in the checkpoint file if a checkpoint is due after a generation. A
+     * failure while saving is reported but does not stop the execution.
+     * <p>
+     * The chromosomes of the populations are read while the file is written, so they must not be modified by
+     * other threads in the meantime, see {@link Island#publishSnapshot(Population)}.
+     *
+     * @param nextGeneration number of the first generation that has not been executed.
+     * @param populations    current populations.
+     */
+    private void saveCheckpoint(int nextGeneration, List<Population> populations) {
+        if (!isCheckpointDue(nextGeneration)) {
+            return;
+        }
+        List<List<Individual>> individuals = new ArrayList<>();
+        for (Population saved : populations) {
+            individuals.add(saved.getIndividuals());
+        }
+        try {
+            new AlgorithmCheckpoint(nextGeneration, individuals, reporter.getTimeSeries())
+                    .write(geneticParameters.getCheckpointFile(), GreedyAlgorithm.getInstance().getEvaluator().getPlanification());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean isCheckpointDue(int nextGeneration) {
+        int interval = geneticParameters.getCheckpointInterval();
+        return interval > 0 && nextGeneration % interval == 0;
+    }
+
+    /**
+     * Writes the results with the best individual found so far when the execution stops before generating them.
+     * It is run as a shutdown hook, so the processes that are interrupted or fail still leave their best solution.
+     */
+    private void generateAnytimeResults() {
+        Individual best = bestSoFar.get();
+        if (best != null && (remoteIslands == null || remoteIslands.isCoordinator())) {
+            System.out.println("Execution stopped, generating the results of the best solution found so far...");
+            reporter.generateAlgorithmResults(new Population(Collections.singletonList(best)), geneticParameters);
+        }
+    }
+
+    /**
+     * Executes the genetic algorithm with the island model. Each island evolves its own population in
+     * its own thread with the same operators, and every migration interval it sends copies of its best
+     * individuals to another island: the next one in the ring topology or a random one in the random topology.
+     * The best individual of all the islands is kept in a {@link BestSoFar} that the reporter reads, and the
+     * progress of the first island is the one shown in the charts.
+     * <p>
+     * Once all the islands have finished, their populations are joined in the final population.
+     */
+    private void executeIslands() {
+        reporter.setBestSoFar(bestSoFar);
+        List<Island> islands = new ArrayList<>();
+        int firstGeneration = getFirstGeneration();
+        for (int i = 0; i < geneticParameters.getNumberOfIslands(); i++) {
+            if (resumedCheckpoint != null && i < resumedCheckpoint.getPopulations().size()) {
+                islands.add(new Island(i, new Population(resumedCheckpoint.getPopulations().get(i)), new ChromosomeArena(allAssignments.size(), encoder)));
+            } else {
+                islands.add(new Island(i, createInitialPopulation(), new ChromosomeArena(allAssignments.size(), encoder)));
+            }
+        }
+        ExecutorService islandThreads = Executors.newFixedThreadPool(islands.size());
+        try {
+            runTasks(islandThreads, islands, island -> {
+                evolveIsland(island, islands, firstGeneration);
+                return island;
+            });
+        } finally {
+            islandThreads.shutdownNow();
+        }
+        List<Individual> individuals = new ArrayList<>();
+        for (Island island : islands) {
+            individuals.addAll(island.getPopulation().getIndividuals());
+        }
+        if (remoteIslands != null) {
+            individuals.addAll(finishRemoteIslands(individuals));
+        }
+        this.population = new Population(individuals);
+    }
+
+    /**
+     * Executes the genetic algorithm in steady state mode. Instead of waiting for all the pairs of a generation,
+     * each worker repeatedly selects two parents from the current population, breeds them and replaces the worst
+     * individuals with the descendants that improve them, so a slow evaluation only delays its own worker.
+     * <p>
+     * The population is an array of individuals whose positions are replaced with a compare and set. The
+     * algorithm breeds as many descendants as the generational mode (number of generations times population
+     * size), and the progress is reported each report interval descendants as if they were a generation. For
+     * the stopping rules, each population size descendants count as a generation.
+     */
+    private void executeSteadyState() {
+        List<Individual> initialPopulation = (resumedCheckpoint != null ? restorePopulation() : createInitialPopulation()).getIndividuals();
+        AtomicReferenceArray<Individual> individuals = new AtomicReferenceArray<>(initialPopulation.toArray(new Individual[0]));
+        bestSoFar.offer(initialPopulation.get(0));
+        AtomicLong descendants = new AtomicLong((long) getFirstGeneration() * geneticParameters.getPopulationSize());
+        long totalDescendants = (long) geneticParameters.getNumberOfGenerations() * geneticParameters.getPopulationSize();
+        List<Integer> workers = new ArrayList<>();
+        for (int i = 0; i < geneticParameters.getNumberOfWorkers(); i++) {
+            workers.add(i);
+        }
+        runTasks(workers, worker -> {
+            long bred;
+            while (!termination.isStopped() && (bred = descendants.addAndGet(2)) <= totalDescendants) {
+                breedSteadyState(individuals);
+                long interval = geneticParameters.getReportInterval();
+                if (bred / interval > (bred - 2) / interval) {
+                    synchronized (this) {
+                        report(new Population(toList(individuals)), (int) (bred / interval) - 1);
+                    }
+                }
+                int generation = (int) (bred / geneticParameters.getPopulationSize());
+                if (generation > (bred - 2) / geneticParameters.getPopulationSize()) {
+                    synchronized (this) {
+                        saveCheckpoint(generation, Collections.singletonList(new Population(toList(individuals))));
                     }
                 }
+                termination.shouldStop(generation, bestSoFar.get().getFitness());
+            }
+            return worker;
+        });
+        this.population = new Population(toList(individuals));
+    }
 
-                // Select the best two individuals between parents and descendants
-                List<Individual> sortedByFitness = parentsAndDescendants.parallelStream().sorted(Comparator.comparingDouble(Individual::getFitness)).collect(Collectors.toList());
-                for (int j = 0; j < 2; j++) {
-                    Individual selectedIndividual = sortedByFitness.get(j);
-                    newPopulation.add(selectedIndividual);
+    /**
+     * Crosses two parents selected from the population, mutates and evaluates the descendants and
+     * replaces the worst individuals of the population with the descendants that are better than them.
+     *
+     * @param individuals current population, shared by all the workers.
+     */
+    private void breedSteadyState(AtomicReferenceArray<Individual> individuals) {
+        int parent1 = selectParent(individuals, -1);
+        Pair pair = new Pair(individuals.get(parent1), individuals.get(selectParent(individuals, parent1)));
+        if (ThreadLocalRandom.current().nextFloat() <= geneticParameters.getCrossoverProb()) {
+            for (int[] descendant : crossover.crossover(pair)) {
+                Individual descendantDecoded = createDescendant(descendant, pair);
+                double worstFitness = individuals.get(findWorst(individuals)).getFitness();
+                descendantDecoded.setFitness(fitnessFunction.calculateFitness(descendantDecoded, worstFitness));
+                if (replaceWorst(individuals, descendantDecoded)) {
+                    bestSoFar.offer(descendantDecoded);
                 }
             }
-            this.population = new Population(newPopulation);
-            this.reporter.updateCharts(population, i);
+        }
+    }
 
-            // Print statistics each 20 Generations
-            if (i % 20 == 0) {
-                reporter.printStatsTable(this.population, i);
+    /**
+     * Selects a parent with a tournament between random individuals of the population. With a tournament
+     * size of one, the parent is a random individual.
+     *
+     * @param individuals current population.
+     * @param excluded    position of an individual that cannot be selected, or -1.
+     * @return position of the selected parent.
+     */
+    private int selectParent(AtomicReferenceArray<Individual> individuals, int excluded) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int best = -1;
+        for (int i = 0; i < geneticParameters.getTournamentSize(); i++) {
+            int candidate;
+            if (excluded < 0) {
+                candidate = random.nextInt(individuals.length());
+            } else {
+                candidate = random.nextInt(individuals.length() - 1);
+                if (candidate >= excluded) {
+                    candidate++;
+                }
+            }
+            if (best < 0 || individuals.get(candidate).getFitness() < individuals.get(best).getFitness()) {
+                best = candidate;
             }
+        }
+        return best;
+    }
 
-            if (this.generateResults.get()) {
-                reporter.generateAlgorithmResults(population, geneticParameters);
-                this.generateResults.set(false);
+    /**
+     * Replaces the worst individual of the population with a descendant if the descendant has a lower fitness.
+     * If another worker replaces the same individual first, the worst individual is searched again.
+     *
+     * @param individuals current population.
+     * @param descendant  descendant already evaluated.
+     * @return true if the descendant has been added to the population.
+     */
+    private static boolean replaceWorst(AtomicReferenceArray<Individual> individuals, Individual descendant) {
+        while (true) {
+            int worst = findWorst(individuals);
+            Individual current = individuals.get(worst);
+            if (descendant.getFitness() >= current.getFitness()) {
+                return false;
             }
+            if (individuals.compareAndSet(worst, current, descendant)) {
+                return true;
+            }
+        }
+    }
 
+    private static int findWorst(AtomicReferenceArray<Individual> individuals) {
+        int worst = 0;
+        for (int i = 1; i < individuals.length(); i++) {
+            if (individuals.get(i).getFitness() > individuals.get(worst).getFitness()) {
+                worst = i;
+            }
         }
-        long executionTime = System.currentTimeMillis() - startTime;
-        System.out.println("EXECUTION TIME:" + executionTime);
-        reporter.generateAlgorithmResults(population, geneticParameters);
-        System.out.println("FINISHED");
+        return worst;
+    }
+
+    private static List<Individual> toList(AtomicReferenceArray<Individual> individuals) {
+        List<Individual> list = new ArrayList<>(individuals.length());
+        for (int i = 0; i < individuals.length(); i++) {
+            list.add(individuals.get(i));
+        }
+        return list;
+    }
+
+    /**
+     * Starts the coordinator of the remote islands or connects to it, depending on the genetic parameters.
+     * If the connection cannot be established the execution stops.
+     *
+     * @return the link with the islands of the other processes, or null if they are not configured.
+     */
+    private RemoteIslands connectRemoteIslands() {
+        try {
+            long planificationHash = AlgorithmCheckpoint.getPlanificationHash(GreedyAlgorithm.getInstance().getEvaluator().getPlanification());
+            if (geneticParameters.getCoordinatorPort() > 0) {
+                System.out.println("Waiting for remote islands in port " + geneticParameters.getCoordinatorPort());
+                return RemoteIslands.startCoordinator(geneticParameters.getCoordinatorPort(), planificationHash,
+                        allAssignments.size(), geneticParameters.getPopulationSize());
+            }
+            String address = geneticParameters.getCoordinatorAddress();
+            if (address != null) {
+                int separator = address.lastIndexOf(':');
+                return RemoteIslands.connectToCoordinator(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)),
+                        planificationHash, allAssignments.size(), geneticParameters.getPopulationSize());
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("ERROR: Could not connect the remote islands: " + e.getMessage());
+            System.exit(1);
+        }
+        return null;
+    }
+
+    /**
+     * Ends the exchange with the islands of other processes. A peer sends its best individual to the coordinator,
+     * and the coordinator waits for the best individual of every peer.
+     *
+     * @param individuals final individuals of the local islands.
+     * @return best individuals received from the peers, already evaluated.
+     */
+    private List<Individual> finishRemoteIslands(List<Individual> individuals) {
+        List<Individual> received = new ArrayList<>();
+        if (remoteIslands.isCoordinator()) {
+            System.out.println("Waiting for the results of the remote islands");
+            received = toImmigrants(remoteIslands.awaitResults(), Double.POSITIVE_INFINITY);
+            for (Individual individual : received) {
+                bestSoFar.offer(individual);
+            }
+            remoteIslands.close();
+        } else {
+            Individual best = Collections.min(individuals, Comparator.comparingDouble(Individual::getFitness));
+            remoteIslands.sendResult(new RemoteIslands.Migrant(best.getEncoding(), best.getFitness()));
+        }
+        return received;
+    }
+
+    /**
+     * Decodes and evaluates the chromosomes received from other processes. The chromosomes that do not
+     * encode the assignments of this planification are discarded, as well as the ones whose fitness in
+     * the process that sent them is not lower than a limit, so they are not evaluated in vain.
+     *
+     * @param migrants chromosomes received.
+     * @param limit    fitness that the migrants must improve.
+     * @return individuals evaluated in this process.
+     */
+    private List<Individual> toImmigrants(List<RemoteIslands.Migrant> migrants, double limit) {
+        List<Individual> individuals = new ArrayList<>();
+        for (RemoteIslands.Migrant migrant : migrants) {
+            if (migrant.fitness < limit && isPermutation(migrant.encoding, allAssignments.size())) {
+                Individual individual = new Individual(encoder.decode(migrant.encoding));
+                individual.setEncoding(migrant.encoding);
+                individual.setFitness(fitnessFunction.calculateFitness(individual));
+                individuals.add(individual);
+            }
+        }
+        return individuals;
+    }
+
+    /**
+     * Checks whether a chromosome contains each assignment exactly once.
+     *
+     * @param encoding            chromosome to check.
+     * @param numberOfAssignments number of assignments encoded by the chromosomes.
+     * @return true if the chromosome is a permutation of the assignments.
+     */
+    static boolean isPermutation(int[] encoding, int numberOfAssignments) {
+        if (encoding.length != numberOfAssignments) {
+            return false;
+        }
+        boolean[] seen = new boolean[encoding.length];
+        for (int gene : encoding) {
+            if (gene < 0 || gene >= encoding.length || seen[gene]) {
+                return false;
+            }
+            seen[gene] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Evolves the population of an island during all the generations, exchanging individuals with the
+     * rest of islands each migration interval. Only the first island reports its progress. All the islands
+     * stop as soon as one of them meets a stopping rule with the best fitness of all the islands.
+     * <p>
+     * When a checkpoint is due, each island publishes a copy of its population and the first island saves the
+     * last copy published by each island, which is the one of an earlier checkpoint if the island is behind.
+     * The first island never reads the populations of the other islands, whose chromosomes are being reused.
+     *
+     * @param island          island to evolve.
+     * @param islands         all the islands of the topology.
+     * @param firstGeneration number of the first generation to execute.
+     */
+    private void evolveIsland(Island island, List<Island> islands, int firstGeneration) {
+        offerBest(island.getPopulation());
+        for (int i = firstGeneration; i < geneticParameters.getNumberOfGenerations() && !termination.isStopped(); i++) {
+            island.acceptImmigrants();
+            island.setPopulation(evolve(island.getPopulation(), island.getArena()));
+            offerBest(island.getPopulation());
+            if ((i + 1) % geneticParameters.getMigrationInterval() == 0) {
+                migrate(island, islands);
+                if (island.getIndex() == 0 && remoteIslands != null) {
+                    List<Individual> individuals = island.getPopulation().getIndividuals();
+                    island.receive(toImmigrants(remoteIslands.pollImmigrants(), individuals.get(individuals.size() - 1).getFitness()));
+                }
+            }
+            if (isCheckpointDue(i + 1)) {
+                List<Individual> copies = new ArrayList<>();
+                for (Individual individual : island.getPopulation().getIndividuals()) {
+                    copies.add(detach(individual));
+                }
+                island.publishSnapshot(new Population(copies));
+            }
+            if (island.getIndex() == 0) {
+                report(island.getPopulation(), i);
+                List<Population> populations = new ArrayList<>();
+                for (Island other : islands) {
+                    populations.add(other.getSnapshot());
+                }
+                saveCheckpoint(i + 1, populations);
+            }
+            termination.shouldStop(i, bestSoFar.get().getFitness());
+        }
+    }
+
+    /**
+     * Sends the best individuals of an island to the island that follows it in the migration topology. The
+     * best individuals of the first island are also sent to the islands of the other processes.
+     *
+     * @param island  island whose best individuals are sent.
+     * @param islands all the islands of the topology.
+     */
+    private void migrate(Island island, List<Island> islands) {
+        List<Individual> individuals = island.getPopulation().getIndividuals();
+        List<Individual> migrants = new ArrayList<>();
+        for (Individual migrant : individuals.subList(0, Math.min(geneticParameters.getNumberOfMigrants(), individuals.size()))) {
+            migrants.add(detach(migrant));
+        }
+        if (island.getIndex() == 0 && remoteIslands != null) {
+            List<RemoteIslands.Migrant> remoteMigrants = new ArrayList<>();
+            for (Individual migrant : migrants) {
+                remoteMigrants.add(new RemoteIslands.Migrant(migrant.getEncoding(), migrant.getFitness()));
+            }
+            remoteIslands.send(remoteMigrants);
+        }
+        if (islands.size() == 1) {
+            return;
+        }
+        int destination;
+        if (geneticParameters.getMigrationTopology().equals("random")) {
+            destination = ThreadLocalRandom.current().nextInt(islands.size() - 1);
+            if (destination >= island.getIndex()) {
+                destination++;
+            }
+        } else {
+            destination = (island.getIndex() + 1) % islands.size();
+        }
+        islands.get(destination).receive(migrants);
+    }
+
+    /**
+     * Generates the next generation of a population. The descendants of the pair in each position are written
+     * into two consecutive slots of the next generation of the arena.
+     *
+     * @param population current population.
+     * @param arena      storage of the generations of the population.
+     * @return population formed by the survivors of the crossover of each pair of individuals.
+     */
+    private Population evolve(Population population, ChromosomeArena arena) {
+        List<Pair> pairs = selection.selectPairs(population);
+        arena.prepareNextGeneration(pairs.size() * 2);
+        List<Integer> positions = new ArrayList<>(pairs.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            positions.add(i);
+        }
+        List<Individual> newPopulation = new ArrayList<>();
+        for (List<Individual> survivors : runTasks(positions, i -> breed(pairs.get(i), arena.getNextIndividual(2 * i), arena.getNextIndividual(2 * i + 1)))) {
+            newPopulation.addAll(survivors);
+        }
+        arena.swap();
+        return new Population(newPopulation);
+    }
+
+    /**
+     * Reports the progress of the algorithm after a generation and generates the results if the user has asked for them.
+     *
+     * @param population population of the generation.
+     * @param generation number of the generation.
+     */
+    private void report(Population population, int generation) {
+        this.reporter.updateCharts(population, generation);
+
+        // Print statistics each 20 Generations
+        if (generation % 20 == 0) {
+            reporter.printStatsTable(population, generation);
+        }
+
+        if (this.generateResults.get()) {
+            reporter.generateAlgorithmResults(population, geneticParameters);
+            this.generateResults.set(false);
+        }
+    }
+
+    /**
+     * Crosses a pair of individuals, mutates and evaluates the descendants and
+     * selects the best two individuals between parents and descendants.
+     * It only writes into its own slots of the arena, so several pairs can be bred at the same time.
+     * <p>
+     * The descendants are written into the two slots received, and the surviving parents are copied
+     * into the slots of the descendants that do not survive, so the survivors are always views of them.
+     *
+     * @param pair  pair of individuals to be crossed.
+     * @param slot1 individual of the next generation for the first survivor.
+     * @param slot2 individual of the next generation for the second survivor.
+     * @return the two best individuals between the parents and the descendants.
+     */
+    private List<Individual> breed(Pair pair, Individual slot1, Individual slot2) {
+        List<Individual> parentsAndDescendants = new ArrayList<>(4);
+        parentsAndDescendants.add(pair.getParent1());
+        parentsAndDescendants.add(pair.getParent2());
+        // CROSSOVER
+        if (ThreadLocalRandom.current().nextFloat() <= geneticParameters.getCrossoverProb()) {
+            crossover.crossover(pair, slot1.getGenes(), slot1.getGenesOffset(), slot2.getGenes(), slot2.getGenesOffset());
+            for (int i = 0; i < 2; i++) {
+                Individual descendant = prepareDescendant(i == 0 ? slot1 : slot2, pair);
+                descendant.setFitness(fitnessFunction.calculateFitness(descendant, getSelectionCutoff(parentsAndDescendants)));
+                parentsAndDescendants.add(descendant);
+            }
+        }
+
+        // Select the best two individuals between parents and descendants
+        parentsAndDescendants.sort(Comparator.comparingDouble(Individual::getFitness));
+        List<Individual> survivors = new ArrayList<>(parentsAndDescendants.subList(0, 2));
+        boolean slot1Used = survivors.get(0) == slot1 || survivors.get(1) == slot1;
+        for (int i = 0; i < survivors.size(); i++) {
+            Individual survivor = survivors.get(i);
+            if (survivor != slot1 && survivor != slot2) {
+                Individual slot = slot1Used ? slot2 : slot1;
+                slot.copyFrom(survivor);
+                survivors.set(i, slot);
+                slot1Used = true;
+            }
+        }
+        return survivors;
+    }
+
+    /**
+     * Copies an individual into a new individual with its own chromosome, so it is not modified when the
+     * slots of its generation are reused.
+     *
+     * @param individual individual already evaluated.
+     * @return copy of the individual with its own chromosome.
+     */
+    private Individual detach(Individual individual) {
+        int[] chromosome = new int[individual.getNumberOfGenes()];
+        Individual copy = new Individual(encoder.decode(chromosome));
+        copy.setEncoding(chromosome);
+        copy.copyFrom(individual);
+        return copy;
+    }
+
+    /**
+     * Offers the best individual of a population to the best individual found so far. It is copied before
+     * it becomes the best so far, as the chromosomes of the population are reused by the next generations.
+     *
+     * @param population population sorted by fitness.
+     */
+    private void offerBest(Population population) {
+        Individual best = population.getIndividuals().get(0);
+        Individual current = bestSoFar.get();
+        if (current == null || best.getFitness() < current.getFitness()) {
+            bestSoFar.offer(detach(best));
+        }
+    }
+
+    /**
+     * Decodes a descendant into a new individual, mutated with the mutation probability.
+     *
+     * @param descendant chromosome generated by the crossover.
+     * @param pair       parents of the descendant.
+     * @return new individual not evaluated yet.
+     */
+    private Individual createDescendant(int[] descendant, Pair pair) {
+        Individual descendantDecoded = new Individual(encoder.decode(descendant));
+        descendantDecoded.setEncoding(descendant);
+        return prepareDescendant(descendantDecoded, pair);
+    }
+
+    /**
+     * Mutates a descendant written by the crossover with the mutation probability and links it to the
+     * checkpoints of its parents, so it is ready to be evaluated.
+     *
+     * @param descendant individual whose chromosome has been generated by the crossover.
+     * @param pair       parents of the descendant.
+     * @return the descendant.
+     */
+    private Individual prepareDescendant(Individual descendant, Pair pair) {
+        // Mutation
+        if (ThreadLocalRandom.current().nextFloat() <= geneticParameters.getMutationProb()) {
+            mutation.mutate(descendant.getGenes(), descendant.getGenesOffset(), descendant.getNumberOfGenes());
+        }
+        descendant.setParentCheckpoints(Arrays.asList(pair.getParent1().getCheckpoints(), pair.getParent2().getCheckpoints()));
+        return descendant;
+    }
+
+    /**
+     * Returns the fitness that a new descendant must improve to be selected. The sort is stable, so a
+     * descendant is only selected if its fitness is lower than the second best of the individuals added before it.
+     *
+     * @param parentsAndDescendants parents and descendants already evaluated.
+     * @return fitness of the second best individual.
+     */
+    private static double getSelectionCutoff(List<Individual> parentsAndDescendants) {
+        double best = Double.POSITIVE_INFINITY;
+        double secondBest = Double.POSITIVE_INFINITY;
+        for (Individual individual : parentsAndDescendants) {
+            if (individual.getFitness() < best) {
+                secondBest = best;
+                best = individual.getFitness();
+            } else if (individual.getFitness() < secondBest) {
+                secondBest = individual.getFitness();
+            }
+        }
+        return secondBest;
+    }
+
+    /**
+     * Applies a task to each element of a list. When there are several workers the elements are
+     * processed in parallel; in any case the results are returned in the same order as the elements.
+     *
+     * @param elements elements to be processed.
+     * @param task     task to apply to each element.
+     * @param <T>      type of the elements.
+     * @param <R>      type of the results.
+     * @return list with the result of the task for each element.
+     */
+    private <T, R> List<R> runTasks(List<T> elements, Function<T, R> task) {
+        return runTasks(executor, elements, task);
+    }
+
+    /**
+     * Applies a task to each element of a list using the threads of an executor, or the current thread if
+     * there is no executor. The results are returned in the same order as the elements.
+     *
+     * @param executor executor that runs the tasks, or null for running them in the current thread.
+     * @param elements elements to be processed.
+     * @param task     task to apply to each element.
+     * @param <T>      type of the elements.
+     * @param <R>      type of the results.
+     * @return list with the result of the task for each element.
+     */
+    private static <T, R> List<R> runTasks(ExecutorService executor, List<T> elements, Function<T, R> task) {
+        List<R> results = new ArrayList<>(elements.size());
+        if (executor == null) {
+            for (T element : elements) {
+                results.add(task.apply(element));
+            }
+            return results;
+        }
+        List<Callable<R>> tasks = new ArrayList<>(elements.size());
+        for (T element : elements) {
+            tasks.add(() -> task.apply(element));
+        }
+        try {
+            for (Future<R> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the workers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker failed while evolving the population", e.getCause());
+        }
+        return results;
     }
 
 
     /**
-     * Method that generates a complete new population of random individuals.
+     * Loads the solution of a previous execution configured for the warm start: the Excel file of a results
+     * folder or a checkpoint file. If it cannot be read the execution stops.
      */
-    private void createInitialPopulation() {
+    private void loadWarmStart() {
+        if (geneticParameters.getWarmStart() == null || resumedCheckpoint != null) {
+            return;
+        }
+        File source = new File(geneticParameters.getWarmStart());
+        if (source.isDirectory()) {
+            source = new File(source, "excelResults.xlsx");
+        }
+        if (source.getName().endsWith(".xlsx")) {
+            Map<Assignment, Group> previousGroups = new ParserImpl().parsePreviousAssignments(source.getPath(), planification, geneticParameters.getSemester());
+            this.warmStart = new WarmStart(GreedyAlgorithm.getInstance().getEvaluator(), previousGroups);
+            System.out.println("Warm start with " + previousGroups.size() + " assignments of " + source);
+        } else {
+            try {
+                List<int[]> chromosomes = AlgorithmCheckpoint.readChromosomes(source.getPath(), GreedyAlgorithm.getInstance().getEvaluator().getPlanification());
+                this.warmStart = new WarmStart(allAssignments.size(), chromosomes);
+                System.out.println("Warm start with " + chromosomes.size() + " individuals of " + source);
+            } catch (IOException e) {
+                System.err.println("ERROR: Could not warm start from " + source + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Method that generates a complete new population of random individuals. With a warm start, the warm start
+     * ratio of the population is seeded with the solutions of the previous execution instead.
+     *
+     * @return new population of evaluated individuals.
+     */
+    private Population createInitialPopulation() {
         List<Individual> individuals = new ArrayList<>();
+        int seeded = 0;
+        if (warmStart != null && warmStart.getNumberOfSolutions() > 0) {
+            seeded = (int) Math.round(geneticParameters.getWarmStartRatio() * geneticParameters.getPopulationSize());
+        }
         for (int i = 0; i < geneticParameters.getPopulationSize(); i++) {
-            individuals.add(generateIndividual());
+            individuals.add(i < seeded ? generateWarmStartIndividual(i) : generateIndividual());
         }
-        individuals.stream().forEach(individual -> individual.setFitness(fitnessFunction.calculateFitness(individual)));
-        this.population = new Population(individuals);
+        runTasks(individuals, individual -> {
+            individual.setFitness(fitnessFunction.calculateFitness(individual));
+            return individual;
+        });
+        return new Population(individuals);
     }
 
     /**
@@ -150,6 +867,23 @@ public class GeneticAlgorithm {
         return newIndividual;
     }
 
+    /**
+     * Generates an individual seeded with a solution of the previous execution. Once every previous solution has
+     * seeded an individual, the next ones are also mutated so the seeded individuals are not all the same.
+     *
+     * @param index position of the individual among the seeded ones.
+     * @return new seeded individual.
+     */
+    private Individual generateWarmStartIndividual(int index) {
+        int[] chromosome = warmStart.createChromosome(index % warmStart.getNumberOfSolutions());
+        if (index >= warmStart.getNumberOfSolutions()) {
+            mutation.mutate(chromosome);
+        }
+        Individual newIndividual = new Individual(encoder.decode(chromosome));
+        newIndividual.setEncoding(chromosome);
+        return newIndividual;
+    }
+
     /**
      * Method that generates the complete list of assignments that the algorithm must do
      * from the information of the planification.
@@ -10,6 +10,66 @@ package uniovi.assign.genetic;
  * mutationProb = 0.05
  * populationSize = 200
  * semester = S1
+ * workers = 1
+ * sparseCollisionMatrix = false
+ * evaluationCheckpoints = 0
+ * evaluationCacheSize = 0
+ * repairDepth = 1
+ * repairBudget = 64
+ * conflictHeatmap = false
+ * islands = 1
+ * migrationInterval = 20
+ * migrants = 2
+ * migrationTopology = ring
+ * coordinatorPort = 0
+ * coordinatorAddress = none
+ * steadyState = false
+ * tournamentSize = 1
+ * reportInterval = 200
+ * stagnationGenerations = 0
+ * timeLimit = 0
+ * maxEvaluations = 0
+ * targetFitness = -1
+ * checkpointInterval = 0
+ * checkpointFile = algorithm.checkpoint
+ * warmStart = none
+ * warmStartRatio = 0.5
+ * <p>
+ * When the number of workers is greater than one, the pairs of each generation are crossed, mutated
+ * and evaluated in parallel by that number of threads. The sparse collision matrix stores only the
+ * collided groups of each group, which uses less memory in very large timetables with few collisions.
+ * The evaluation checkpoints are the number of snapshots of the greedy algorithm stored for each individual,
+ * so its descendants can resume their evaluation from them (0 disables them). The evaluation cache size is the
+ * number of evaluated chromosomes whose results are kept for not evaluating them again (0 disables the cache).
+ * The repair depth is the maximum length of the chains of moves tried by the greedy algorithm when an assignment
+ * collides with every group (1 only moves one of the collided assignments), and the repair budget is the maximum
+ * number of groups visited by each of those chains. The conflict heatmap counts how many times each student
+ * is left without a group of each subject class, and the most conflictive ones are included in the results.
+ * <p>
+ * When the number of islands is greater than one, each island evolves its own population of the configured
+ * size in its own thread, and every migration interval (in generations) it sends its best migrants to another
+ * island: the next one with the ring topology or a random one with the random topology.
+ * <p>
+ * The islands of several processes can also exchange migrants over TCP. The coordinator process listens on the
+ * coordinator port (0 disables it) and the other processes connect to its coordinator address (host:port).
+ * Only the coordinator generates the final results, with the best individual of all the processes.
+ * <p>
+ * In steady state mode there are no generations: each worker selects two parents, breeds them and replaces the
+ * worst individuals with the descendants that improve them, without waiting for the rest of workers. The parents
+ * are the best of a tournament between tournament size random individuals (1 selects random parents), and the
+ * progress is reported every report interval descendants. The steady state mode is not used with islands.
+ * <p>
+ * Besides the number of generations, the execution stops after the stagnation generations without improving
+ * the best fitness, after the time limit (in seconds), after the maximum number of evaluations of the greedy
+ * algorithm or when the best fitness reaches the target fitness. A value of 0 disables each of the first three
+ * rules and a negative target fitness disables the last one.
+ * <p>
+ * Every checkpoint interval generations (0 disables it) the populations are saved in the checkpoint file, so
+ * the execution can be resumed with the option --resume.
+ * <p>
+ * The warm start seeds the warm start ratio of the initial population with the solution of a previous execution:
+ * a results folder, its Excel file or a checkpoint file. The assignments that still exist keep their previous
+ * group or order, and the rest of the initial population is random.
  */
 public class GeneticParameters {
 
@@ -18,6 +78,30 @@ public class GeneticParameters {
     double mutationProb = 0.05;
     int populationSize = 200;
     String semester = "S1";
+    int numberOfWorkers = 1;
+    boolean sparseCollisionMatrix = false;
+    int evaluationCheckpoints = 0;
+    int evaluationCacheSize = 0;
+    int repairDepth = 1;
+    int repairBudget = 64;
+    boolean conflictHeatmap = false;
+    int numberOfIslands = 1;
+    int migrationInterval = 20;
+    int numberOfMigrants = 2;
+    String migrationTopology = "ring";
+    int coordinatorPort = 0;
+    String coordinatorAddress = null;
+    boolean steadyState = false;
+    int tournamentSize = 1;
+    int reportInterval = 200;
+    int stagnationGenerations = 0;
+    long timeLimit = 0;
+    long maxEvaluations = 0;
+    double targetFitness = -1;
+    int checkpointInterval = 0;
+    String checkpointFile = "algorithm.checkpoint";
+    String warmStart = null;
+    double warmStartRatio = 0.5;
 
 
     public int getNumberOfGenerations() {
@@ -64,4 +148,236 @@ public class GeneticParameters {
             this.semester = semester;
         }
     }
+
+    public int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    public void setNumberOfWorkers(int numberOfWorkers) {
+        if (numberOfWorkers > 0) {
+            this.numberOfWorkers = numberOfWorkers;
+        }
+    }
+
+    public boolean isSparseCollisionMatrix() {
+        return sparseCollisionMatrix;
+    }
+
+    public void setSparseCollisionMatrix(boolean sparseCollisionMatrix) {
+        this.sparseCollisionMatrix = sparseCollisionMatrix;
+    }
+
+    public int getEvaluationCheckpoints() {
+        return evaluationCheckpoints;
+    }
+
+    public void setEvaluationCheckpoints(int evaluationCheckpoints) {
+        if (evaluationCheckpoints >= 0) {
+            this.evaluationCheckpoints = evaluationCheckpoints;
+        }
+    }
+
+    public int getEvaluationCacheSize() {
+        return evaluationCacheSize;
+    }
+
+    public void setEvaluationCacheSize(int evaluationCacheSize) {
+        if (evaluationCacheSize >= 0) {
+            this.evaluationCacheSize = evaluationCacheSize;
+        }
+    }
+
+    public int getRepairDepth() {
+        return repairDepth;
+    }
+
+    public void setRepairDepth(int repairDepth) {
+        if (repairDepth >= 1) {
+            this.repairDepth = repairDepth;
+        }
+    }
+
+    public int getRepairBudget() {
+        return repairBudget;
+    }
+
+    public void setRepairBudget(int repairBudget) {
+        if (repairBudget >= 1) {
+            this.repairBudget = repairBudget;
+        }
+    }
+
+    public boolean isConflictHeatmap() {
+        return conflictHeatmap;
+    }
+
+    public void setConflictHeatmap(boolean conflictHeatmap) {
+        this.conflictHeatmap = conflictHeatmap;
+    }
+
+    public int getNumberOfIslands() {
+        return numberOfIslands;
+    }
+
+    public void setNumberOfIslands(int numberOfIslands) {
+        if (numberOfIslands > 0) {
+            this.numberOfIslands = numberOfIslands;
+        }
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public void setMigrationInterval(int migrationInterval) {
+        if (migrationInterval > 0) {
+            this.migrationInterval = migrationInterval;
+        }
+    }
+
+    public int getNumberOfMigrants() {
+        return numberOfMigrants;
+    }
+
+    public void setNumberOfMigrants(int numberOfMigrants) {
+        if (numberOfMigrants > 0) {
+            this.numberOfMigrants = numberOfMigrants;
+        }
+    }
+
+    public String getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    public void setMigrationTopology(String migrationTopology) {
+        if (migrationTopology.equals("ring") || migrationTopology.equals("random")) {
+            this.migrationTopology = migrationTopology;
+        }
+    }
+
+    public int getCoordinatorPort() {
+        return coordinatorPort;
+    }
+
+    public void setCoordinatorPort(int coordinatorPort) {
+        if (coordinatorPort >= 0 && coordinatorPort <= 65535) {
+            this.coordinatorPort = coordinatorPort;
+        }
+    }
+
+    public String getCoordinatorAddress() {
+        return coordinatorAddress;
+    }
+
+    public void setCoordinatorAddress(String coordinatorAddress) {
+        if (coordinatorAddress.lastIndexOf(':') > 0) {
+            this.coordinatorAddress = coordinatorAddress;
+        }
+    }
+
+    public boolean isSteadyState() {
+        return steadyState;
+    }
+
+    public void setSteadyState(boolean steadyState) {
+        this.steadyState = steadyState;
+    }
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+
+    public void setTournamentSize(int tournamentSize) {
+        if (tournamentSize > 0) {
+            this.tournamentSize = tournamentSize;
+        }
+    }
+
+    public int getReportInterval() {
+        return reportInterval;
+    }
+
+    public void setReportInterval(int reportInterval) {
+        if (reportInterval > 0) {
+            this.reportInterval = reportInterval;
+        }
+    }
+
+    public int getStagnationGenerations() {
+        return stagnationGenerations;
+    }
+
+    public void setStagnationGenerations(int stagnationGenerations) {
+        if (stagnationGenerations >= 0) {
+            this.stagnationGenerations = stagnationGenerations;
+        }
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public void setTimeLimit(long timeLimit) {
+        if (timeLimit >= 0) {
+            this.timeLimit = timeLimit;
+        }
+    }
+
+    public long getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    public void setMaxEvaluations(long maxEvaluations) {
+        if (maxEvaluations >= 0) {
+            this.maxEvaluations = maxEvaluations;
+        }
+    }
+
+    public double getTargetFitness() {
+        return targetFitness;
+    }
+
+    public void setTargetFitness(double targetFitness) {
+        this.targetFitness = targetFitness;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval >= 0) {
+            this.checkpointInterval = checkpointInterval;
+        }
+    }
+
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(String checkpointFile) {
+        if (!checkpointFile.isEmpty()) {
+            this.checkpointFile = checkpointFile;
+        }
+    }
+
+    public String getWarmStart() {
+        return warmStart;
+    }
+
+    public void setWarmStart(String warmStart) {
+        if (!warmStart.isEmpty()) {
+            this.warmStart = warmStart;
+        }
+    }
+
+    public double getWarmStartRatio() {
+        return warmStartRatio;
+    }
+
+    public void setWarmStartRatio(double warmStartRatio) {
+        if (warmStartRatio >= 0 && warmStartRatio <= 1) {
+            this.warmStartRatio = warmStartRatio;
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package uniovi.assign.genetic;
+
+import uniovi.assign.genetic.population.ChromosomeArena;
+import uniovi.assign.genetic.population.Individual;
+import uniovi.assign.genetic.population.Population;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Sub-population of the island model of the genetic algorithm. Each island evolves in its own thread and
+ * only exchanges individuals with the rest of islands through its queue of immigrants, which the other
+ * islands fill without locking it. The individuals sent to an island are copies, because the chromosomes
+ * of each population are reused by the following generations of its own arena.
+ */
+class Island {
+
+    private final int index;
+    private final ChromosomeArena arena;
+    private final Queue<Individual> immigrants = new ConcurrentLinkedQueue<>();
+    private volatile Population population;
+    private volatile Population snapshot;
+
+    /**
+     * Default constructor for an island. The initial population is published as the first snapshot of the
+     * island, as its chromosomes do not belong to the arena and are never modified.
+     *
+     * @param index      position of the island in the topology.
+     * @param population initial population of the island.
+     * @param arena      chromosomes in which the generations of the island are written.
+     */
+    Island(int index, Population population, ChromosomeArena arena) {
+        this.index = index;
+        this.population = population;
+        this.snapshot = population;
+        this.arena = arena;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    ChromosomeArena getArena() {
+        return arena;
+    }
+
+    Population getPopulation() {
+        return population;
+    }
+
+    void setPopulation(Population population) {
+        this.population = population;
+    }
+
+    Population getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes a population of the island that other threads can read while the island keeps evolving. Its
+     * individuals must have their own chromosomes instead of the ones of the arena.
+     *
+     * @param snapshot copy of the population of the island.
+     */
+    void publishSnapshot(Population snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Sends individuals to this island. They join its population the next time it accepts immigrants.
+     *
+     * @param individuals individuals already evaluated.
+     */
+    void receive(List<Individual> individuals) {
+        immigrants.addAll(individuals);
+    }
+
+    /**
+     * Replaces the worst individuals of the population with the immigrants received. At most half of the
+     * population is replaced, the rest of immigrants are discarded.
+     */
+    void acceptImmigrants() {
+        if (immigrants.isEmpty()) {
+            return;
+        }
+        List<Individual> individuals = new ArrayList<>(population.getIndividuals());
+        int replaced = 0;
+        Individual immigrant;
+        while ((immigrant = immigrants.poll()) != null) {
+            if (replaced < individuals.size() / 2) {
+                individuals.set(individuals.size() - 1 - replaced, immigrant);
+                replaced++;
+            }
+        }
+        this.population = new Population(individuals);
+    }
+}
@@ -0,0 +1,341 @@
+package uniovi.assign.genetic;
+
+import java.io.*;
+import java.net.ConnectException;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Link between the islands of the genetic algorithm that run in different processes. The processes form a star:
+ * the coordinator listens on a TCP port and each peer connects to it, so the migrants of a peer are received by
+ * the coordinator and the migrants of the coordinator are sent to every peer.
+ * <p>
+ * When a connection is opened both ends send a handshake with a hash of the assignments encoded by their genes, see
+ * {@link AlgorithmCheckpoint#getPlanificationHash}, and the connection is closed if the hashes differ, because the
+ * genes of a process started with a different planification encode different assignments.
+ * <p>
+ * Each message starts with its type, followed by the number of chromosomes and, for each chromosome, its fitness,
+ * its length and its genes. A message with more chromosomes than a population or with chromosomes of a different
+ * length than the ones of this process is rejected and its connection is closed. A peer sends its best chromosome
+ * in a result message when it finishes, and the coordinator waits for the results of all the connected peers before
+ * generating the final results, for a limited time so a peer that hangs does not prevent the coordinator from
+ * generating them. The messages received are stored in lock-free queues by a thread per connection, so the islands
+ * never wait for the network.
+ */
+class RemoteIslands implements Closeable {
+
+    private static final byte HANDSHAKE = 0;
+    private static final byte MIGRANTS = 1;
+    private static final byte RESULT = 2;
+    private static final int CONNECTION_ATTEMPTS = 30;
+    private static final int HANDSHAKE_TIMEOUT = 10;
+    private static final int RESULT_TIMEOUT = 120;
+
+    private final Queue<Migrant> immigrants = new ConcurrentLinkedQueue<>();
+    private final Queue<Migrant> results = new ConcurrentLinkedQueue<>();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final long planificationHash;
+    private final int numberOfGenes;
+    private final int populationSize;
+
+    private RemoteIslands(ServerSocket serverSocket, long planificationHash, int numberOfGenes, int populationSize) {
+        this.serverSocket = serverSocket;
+        this.planificationHash = planificationHash;
+        this.numberOfGenes = numberOfGenes;
+        this.populationSize = populationSize;
+        if (serverSocket != null) {
+            this.acceptThread = new Thread(this::acceptPeers, "island-coordinator");
+            this.acceptThread.setDaemon(true);
+            this.acceptThread.start();
+        } else {
+            this.acceptThread = null;
+        }
+    }
+
+    /**
+     * Starts the coordinator of the remote islands, which accepts the connections of the peers in the background.
+     *
+     * @param port              TCP port in which the coordinator listens.
+     * @param planificationHash hash of the assignments encoded by the genes of this process.
+     * @param numberOfGenes     length of the chromosomes of this process.
+     * @param populationSize    maximum number of chromosomes of a message.
+     * @return remote islands of the coordinator.
+     * @throws IOException if the port cannot be opened.
+     */
+    static RemoteIslands startCoordinator(int port, long planificationHash, int numberOfGenes, int populationSize) throws IOException {
+        return new RemoteIslands(new ServerSocket(port), planificationHash, numberOfGenes, populationSize);
+    }
+
+    /**
+     * Connects a peer to the coordinator of the remote islands. As the coordinator may still be loading the
+     * planification, the connection is retried once per second during a limited number of attempts.
+     *
+     * @param host              host of the coordinator.
+     * @param port              TCP port in which the coordinator listens.
+     * @param planificationHash hash of the assignments encoded by the genes of this process.
+     * @param numberOfGenes     length of the chromosomes of this process.
+     * @param populationSize    maximum number of chromosomes of a message.
+     * @return remote islands of the peer.
+     * @throws IOException if the coordinator cannot be reached or it runs a different planification.
+     */
+    static RemoteIslands connectToCoordinator(String host, int port, long planificationHash, int numberOfGenes,
+                                              int populationSize) throws IOException {
+        RemoteIslands remoteIslands = new RemoteIslands(null, planificationHash, numberOfGenes, populationSize);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                remoteIslands.addConnection(new Socket(host, port));
+                return remoteIslands;
+            } catch (ConnectException e) {
+                if (attempt == CONNECTION_ATTEMPTS) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while connecting to the coordinator");
+            }
+        }
+    }
+
+    boolean isCoordinator() {
+        return serverSocket != null;
+    }
+
+    private void acceptPeers() {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                try {
+                    addConnection(socket);
+                    System.out.println("Remote island connected, " + connections.size() + " peers");
+                } catch (IOException e) {
+                    System.err.println("Remote island " + socket.getRemoteSocketAddress() + " rejected: " + e.getMessage());
+                }
+            }
+        } catch (SocketException e) {
+            // The server socket has been closed
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Exchanges the handshake with the other end of a socket and starts reading its messages. The socket is
+     * closed if the other end does not answer in time or it runs a different planification.
+     *
+     * @param socket socket connected to another process.
+     * @throws IOException if the handshake fails.
+     */
+    private void addConnection(Socket socket) throws IOException {
+        Connection connection;
+        try {
+            socket.setTcpNoDelay(true);
+            connection = new Connection(socket);
+            connection.handshake();
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        connections.add(connection);
+        connection.reader.start();
+    }
+
+    /**
+     * Sends migrants to the other end of every connection. The connections that fail are discarded.
+     *
+     * @param migrants chromosomes to be sent.
+     */
+    void send(List<Migrant> migrants) {
+        for (Connection connection : connections) {
+            try {
+                connection.write(MIGRANTS, migrants);
+            } catch (IOException e) {
+                connections.remove(connection);
+            }
+        }
+    }
+
+    /**
+     * Returns the migrants received since the last call and removes them from the queue.
+     *
+     * @return migrants received from the other processes.
+     */
+    List<Migrant> pollImmigrants() {
+        List<Migrant> received = new ArrayList<>();
+        Migrant migrant;
+        while ((migrant = immigrants.poll()) != null) {
+            received.add(migrant);
+        }
+        return received;
+    }
+
+    /**
+     * Sends the best chromosome found by a peer to the coordinator and closes the connection.
+     *
+     * @param best best chromosome of the peer.
+     */
+    void sendResult(Migrant best) {
+        for (Connection connection : connections) {
+            try {
+                connection.write(RESULT, Collections.singletonList(best));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        close();
+    }
+
+    /**
+     * Stops accepting peers and waits until all the connected peers have sent their results and closed
+     * their connections. The peers that do not finish within a time limit are reported and disconnected.
+     *
+     * @return best chromosome of each peer that finished in time.
+     */
+    List<Migrant> awaitResults() {
+        try {
+            serverSocket.close();
+            acceptThread.join();
+            long deadline = System.currentTimeMillis() + RESULT_TIMEOUT * 1000L;
+            for (Connection connection : connections) {
+                connection.reader.join(Math.max(1, deadline - System.currentTimeMillis()));
+                if (connection.reader.isAlive()) {
+                    System.err.println("Remote island " + connection.socket.getRemoteSocketAddress()
+                            + " did not send its result in " + RESULT_TIMEOUT + " seconds");
+                    try {
+                        connection.socket.close();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new ArrayList<>(results);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+            for (Connection connection : connections) {
+                connection.socket.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        connections.clear();
+    }
+
+    /**
+     * Chromosome exchanged between processes together with the fitness calculated by the process that sends it.
+     */
+    static class Migrant {
+
+        final int[] encoding;
+        final double fitness;
+
+        Migrant(int[] encoding, double fitness) {
+            this.encoding = encoding;
+            this.fitness = fitness;
+        }
+    }
+
+    /**
+     * Connection with another process. The messages are written by the islands and read by its own thread.
+     */
+    private class Connection {
+
+        private final Socket socket;
+        private final DataOutputStream output;
+        private final DataInputStream input;
+        private final Thread reader;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.reader = new Thread(this::read, "island-connection-" + socket.getPort());
+            this.reader.setDaemon(true);
+        }
+
+        /**
+         * Sends the hash of the planification of this process and checks the one received from the other end.
+         *
+         * @throws IOException if the other end does not answer in time or it runs a different planification.
+         */
+        void handshake() throws IOException {
+            synchronized (this) {
+                output.writeByte(HANDSHAKE);
+                output.writeLong(planificationHash);
+                output.flush();
+            }
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT * 1000);
+            if (input.readByte() != HANDSHAKE || input.readLong() != planificationHash) {
+                throw new IOException("the remote process runs a different planification");
+            }
+            socket.setSoTimeout(0);
+        }
+
+        synchronized void write(byte type, List<Migrant> migrants) throws IOException {
+            output.writeByte(type);
+            output.writeInt(migrants.size());
+            for (Migrant migrant : migrants) {
+                output.writeDouble(migrant.fitness);
+                output.writeInt(migrant.encoding.length);
+                for (int gene : migrant.encoding) {
+                    output.writeInt(gene);
+                }
+            }
+            output.flush();
+        }
+
+        private void read() {
+            try (DataInputStream input = this.input) {
+                while (true) {
+                    byte type = input.readByte();
+                    int numberOfMigrants = input.readInt();
+                    if ((type != MIGRANTS && type != RESULT) || numberOfMigrants < 0 || numberOfMigrants > populationSize) {
+                        throw new ProtocolException("invalid message of type " + type + " with " + numberOfMigrants + " chromosomes");
+                    }
+                    for (int i = 0; i < numberOfMigrants; i++) {
+                        double fitness = input.readDouble();
+                        int length = input.readInt();
+                        if (length != numberOfGenes) {
+                            throw new ProtocolException("invalid chromosome of length " + length);
+                        }
+                        int[] encoding = new int[length];
+                        for (int j = 0; j < encoding.length; j++) {
+                            encoding[j] = input.readInt();
+                        }
+                        (type == RESULT ? results : immigrants).add(new Migrant(encoding, fitness));
+                    }
+                }
+            } catch (EOFException | SocketException e) {
+                // The other process has closed the connection
+            } catch (ProtocolException e) {
+                System.err.println("Remote island " + socket.getRemoteSocketAddress() + " disconnected: " + e.getMessage());
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                connections.remove(this);
+            }
+        }
+    }
+}
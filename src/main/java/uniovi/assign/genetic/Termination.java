@@ -0,0 +1,73 @@
+package uniovi.assign.genetic;
+
+import uniovi.assign.greedy.GreedyAlgorithm;
+import uniovi.assign.greedy.GreedyEvaluator;
+
+/**
+ * Stopping rules of the genetic algorithm besides the number of generations: a number of generations
+ * without improving the best fitness, a limit of execution time, a limit of evaluations made by the greedy
+ * algorithm and a target fitness. The rules are checked after each generation, so the execution can last
+ * one generation more than the limits.
+ * <p>
+ * Once a rule is met the termination remains stopped, so all the islands that share it stop. As the islands
+ * do not advance at the same pace, the generations without improvement are counted from the most advanced
+ * generation checked, so an improvement found by a lagging island is not taken as an old one.
+ */
+class Termination {
+
+    private final GeneticParameters parameters;
+    private final GreedyEvaluator evaluator;
+    private final long startTime;
+    private final long initialEvaluations;
+    private double bestFitness = Double.POSITIVE_INFINITY;
+    private int lastImprovement;
+    private int maxGeneration;
+    private volatile String reason;
+
+    /**
+     * Default constructor for the termination of an execution that starts now.
+     *
+     * @param parameters genetic parameters containing the stopping rules.
+     */
+    Termination(GeneticParameters parameters) {
+        this.parameters = parameters;
+        this.evaluator = GreedyAlgorithm.getInstance().getEvaluator();
+        this.startTime = System.currentTimeMillis();
+        this.initialEvaluations = evaluator.getNumberOfEvaluations();
+    }
+
+    /**
+     * Checks the stopping rules after a generation.
+     *
+     * @param generation  number of the generation.
+     * @param bestFitness best fitness found after the generation.
+     * @return true if the execution must stop.
+     */
+    synchronized boolean shouldStop(int generation, double bestFitness) {
+        if (reason != null) {
+            return true;
+        }
+        maxGeneration = Math.max(maxGeneration, generation);
+        if (bestFitness < this.bestFitness) {
+            this.bestFitness = bestFitness;
+            this.lastImprovement = maxGeneration;
+        }
+        if (parameters.getTargetFitness() >= 0 && this.bestFitness <= parameters.getTargetFitness()) {
+            reason = "target fitness " + parameters.getTargetFitness() + " reached";
+        } else if (parameters.getStagnationGenerations() > 0 && maxGeneration - lastImprovement >= parameters.getStagnationGenerations()) {
+            reason = "no improvement in " + parameters.getStagnationGenerations() + " generations";
+        } else if (parameters.getTimeLimit() > 0 && System.currentTimeMillis() - startTime >= parameters.getTimeLimit() * 1000L) {
+            reason = "time limit of " + parameters.getTimeLimit() + " seconds reached";
+        } else if (parameters.getMaxEvaluations() > 0 && evaluator.getNumberOfEvaluations() - initialEvaluations >= parameters.getMaxEvaluations()) {
+            reason = "limit of " + parameters.getMaxEvaluations() + " evaluations reached";
+        }
+        if (reason != null) {
+            System.out.println("STOPPED AT GENERATION " + generation + ": " + reason);
+        }
+        return reason != null;
+    }
+
+    boolean isStopped() {
+        return reason != null;
+    }
+}
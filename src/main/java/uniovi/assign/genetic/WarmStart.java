@@ -0,0 +1,126 @@
+package uniovi.assign.genetic;
+
+import uniovi.assign.greedy.CompiledPlanification;
+import uniovi.assign.greedy.EvaluationContext;
+import uniovi.assign.greedy.GreedyEvaluator;
+import uniovi.assign.model.Assignment;
+import uniovi.assign.model.Group;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds chromosomes for the initial population from the solution of a previous execution, so a new execution
+ * with a few changes in the enrollment does not start from random permutations. The genes that cannot be
+ * mapped to the previous solution are placed at the end of the chromosomes, so the rest of assignments are made
+ * as in the previous solution as far as possible.
+ * <p>
+ * A chromosome is the order in which the greedy algorithm makes the assignments, so the groups of a previous
+ * solution cannot be copied into it. When the previous solution only contains the groups, the order is built by
+ * simulating the greedy algorithm, see {@link GreedyEvaluator#buildChromosome(int[], int[])}.
+ */
+class WarmStart {
+
+    private final int numberOfGenes;
+    private final int[] previousOrder;
+    private final List<int[]> previousChromosomes;
+
+    /**
+     * Constructor for a warm start from the groups assigned by a previous execution. The assignments are
+     * tried by their rank inside their previous group and then by the position of the group in its subject
+     * class, so the groups of each subject class are filled in turns as the greedy algorithm does.
+     *
+     * @param evaluator      evaluator whose planification is encoded by the chromosomes.
+     * @param previousGroups group of each assignment in the previous solution.
+     */
+    WarmStart(GreedyEvaluator evaluator, Map<Assignment, Group> previousGroups) {
+        CompiledPlanification planification = evaluator.getPlanification();
+        this.numberOfGenes = planification.getNumberOfVariableAssignments();
+        this.previousChromosomes = null;
+
+        int[] targetGroups = new int[planification.getNumberOfAssignments()];
+        Arrays.fill(targetGroups, EvaluationContext.NO_GROUP);
+        int[] geneOfAssignment = new int[planification.getNumberOfAssignments()];
+        Map<Group, Integer> groupSizes = new HashMap<>();
+        int[] ranks = new int[numberOfGenes];
+        int[] positions = new int[numberOfGenes];
+        List<Integer> ordered = new ArrayList<>();
+        for (int gene = 0; gene < numberOfGenes; gene++) {
+            int assignment = planification.getVariableAssignment(gene);
+            geneOfAssignment[assignment] = gene;
+            Assignment modelAssignment = planification.getAssignment(assignment);
+            Group group = previousGroups.get(modelAssignment);
+            int position = group == null ? -1 : modelAssignment.getSubjectClass().getGroups().indexOf(group);
+            if (position >= 0) {
+                targetGroups[assignment] = planification.getGroupIndex(group);
+                ranks[gene] = groupSizes.merge(group, 1, Integer::sum) - 1;
+                positions[gene] = position;
+                ordered.add(gene);
+            }
+        }
+        ordered.sort(Comparator.comparingInt((Integer gene) -> ranks[gene]).thenComparingInt(gene -> positions[gene]));
+
+        int[] order = new int[ordered.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = planification.getVariableAssignment(ordered.get(i));
+        }
+        this.previousOrder = evaluator.buildChromosome(order, targetGroups);
+        for (int i = 0; i < previousOrder.length; i++) {
+            previousOrder[i] = geneOfAssignment[previousOrder[i]];
+        }
+    }
+
+    /**
+     * Constructor for a warm start from the chromosomes of a previous execution.
+     *
+     * @param numberOfGenes       number of genes of the current chromosomes.
+     * @param previousChromosomes chromosomes of the previous execution mapped to the current genes, best first.
+     */
+    WarmStart(int numberOfGenes, List<int[]> previousChromosomes) {
+        this.numberOfGenes = numberOfGenes;
+        this.previousOrder = null;
+        this.previousChromosomes = previousChromosomes;
+    }
+
+    /**
+     * Returns the number of different solutions of the previous execution that can seed a chromosome.
+     *
+     * @return number of previous solutions.
+     */
+    int getNumberOfSolutions() {
+        return previousOrder != null ? 1 : previousChromosomes.size();
+    }
+
+    /**
+     * Creates a new chromosome from a solution of the previous execution. The genes without a group or a position
+     * in the previous solution are new assignments, so they are made after the rest in a random order, which is
+     * different in each call. Only the first occurrence of a gene repeated in the previous solution is kept, so
+     * the chromosome is always a permutation of the current genes.
+     *
+     * @param solution index of the previous solution, lower than {@link #getNumberOfSolutions()}.
+     * @return new chromosome with all the current genes.
+     */
+    int[] createChromosome(int solution) {
+        int[] genes = previousOrder != null ? previousOrder : previousChromosomes.get(solution);
+        boolean[] present = new boolean[numberOfGenes];
+        int[] chromosome = new int[numberOfGenes];
+        int length = 0;
+        for (int gene : genes) {
+            if (!present[gene]) {
+                present[gene] = true;
+                chromosome[length++] = gene;
+            }
+        }
+        List<Integer> missing = new ArrayList<>();
+        for (int gene = 0; gene < numberOfGenes; gene++) {
+            if (!present[gene]) {
+                missing.add(gene);
+            }
+        }
+        Collections.shuffle(missing, ThreadLocalRandom.current());
+        for (int gene : missing) {
+            chromosome[length++] = gene;
+        }
+        return chromosome;
+    }
+}
@@ -16,4 +16,16 @@ public interface Crossover {
      * @return list containing two new invividuals encoded
      */
     List<int[]> crossover(Pair pair);
+
+    /**
+     * Performs crossover operator over a pair of individuals, writing the descendants into ranges of
+     * arrays that already exist, so they can be reused between generations.
+     *
+     * @param pair        pair of individuals to cross
+     * @param descendant1 array where the first descendant is written
+     * @param offset1     position of the first gene of the first descendant
+     * @param descendant2 array where the second descendant is written
+     * @param offset2     position of the first gene of the second descendant
+     */
+    void crossover(Pair pair, int[] descendant1, int offset1, int[] descendant2, int offset2);
 }
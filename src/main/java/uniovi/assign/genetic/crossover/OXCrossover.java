@@ -1,11 +1,10 @@
 package uniovi.assign.genetic.crossover;
 
+import uniovi.assign.genetic.population.Individual;
 import uniovi.assign.genetic.population.Pair;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -13,6 +12,12 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class OXCrossover implements Crossover {
 
+    /**
+     * Genes copied from the first parent by the crossovers of each thread, indexed by gene. All of them are
+     * unmarked after each crossover, so the array is reused instead of allocating one for each descendant.
+     */
+    private static final ThreadLocal<boolean[]> COPIED_GENES = new ThreadLocal<>();
+
     /**
      * Performs Order Crossover (OX) operator over a pair of individuals
      *
@@ -21,69 +26,99 @@ public class OXCrossover implements Crossover {
      */
     @Override
     public List<int[]> crossover(Pair pair) {
-        int parent1[] = pair.getParent1().getEncoding();
-        int parent2[] = pair.getParent2().getEncoding();
+        int length = pair.getParent1().getNumberOfGenes();
         List<int[]> descendants = new ArrayList<>();
-
-        int startingPoint = ThreadLocalRandom.current().nextInt(0, (int) (parent1.length * 0.8));
-        int endPoint = ThreadLocalRandom.current().nextInt(startingPoint, parent1.length);
-
-        int descendant1[] = getIndividual(parent1, parent2, startingPoint, endPoint);
-        int descendant2[] = getIndividual(parent2, parent1, startingPoint, endPoint);
-        descendants.add(descendant1);
-        descendants.add(descendant2);
-
+        descendants.add(new int[length]);
+        descendants.add(new int[length]);
+        crossover(pair, descendants.get(0), 0, descendants.get(1), 0);
         return descendants;
     }
 
     /**
-     * Generate a new individual crossing the parents at the points passed as parameters
+     * Performs Order Crossover (OX) operator over a pair of individuals, writing the descendants
+     * into the ranges of the arrays passed as parameters.
      *
+     * @param pair        pair of individuals to cross
+     * @param descendant1 array where the first descendant is written
+     * @param offset1     position of the first gene of the first descendant
+     * @param descendant2 array where the second descendant is written
+     * @param offset2     position of the first gene of the second descendant
+     */
+    @Override
+    public void crossover(Pair pair, int[] descendant1, int offset1, int[] descendant2, int offset2) {
+        Individual parent1 = pair.getParent1();
+        Individual parent2 = pair.getParent2();
+        int length = parent1.getNumberOfGenes();
+
+        int startingPoint = ThreadLocalRandom.current().nextInt(0, (int) (length * 0.8));
+        int endPoint = ThreadLocalRandom.current().nextInt(startingPoint, length);
+
+        boolean[] copiedGenes = COPIED_GENES.get();
+        if (copiedGenes == null || copiedGenes.length != length) {
+            copiedGenes = new boolean[length];
+            COPIED_GENES.set(copiedGenes);
+        }
+        fillDescendant(descendant1, offset1, parent1, parent2, startingPoint, endPoint, copiedGenes);
+        fillDescendant(descendant2, offset2, parent2, parent1, startingPoint, endPoint, copiedGenes);
+    }
+
+    /**
+     * Generate a new individual crossing the parents at the points passed as parameters. The genes are the
+     * indexes of the assignments, so the genes copied from the first parent are marked in an array indexed by them.
+     *
+     * @param descendant    array where the new individual is written.
+     * @param offset        position of the first gene of the new individual.
      * @param parent1       parent1 to cross
      * @param parent2       parent2 to cross
      * @param startingPoint start point in which the individuals are going to be crossed.
      * @param endPoint      end point in which the individuals are going to be crossed.
-     * @return a new individual encoded generated from the encoding of the parents.
+     * @param parent1Genes  array for marking the genes copied from the first parent, with no gene marked.
      */
-    private int[] getIndividual(int[] parent1, int[] parent2, int startingPoint, int endPoint) {
-        Set<Integer> parent1Genes = new HashSet<>();
-        int descendant[] = new int[parent1.length];
+    private void fillDescendant(int[] descendant, int offset, Individual parent1, Individual parent2,
+                                int startingPoint, int endPoint, boolean[] parent1Genes) {
+        int[] genes1 = parent1.getGenes();
+        int offset1 = parent1.getGenesOffset();
+        int[] genes2 = parent2.getGenes();
+        int offset2 = parent2.getGenesOffset();
+        int length = parent1.getNumberOfGenes();
 
         for (int i = startingPoint; i <= endPoint; i++) {
-            descendant[i] = parent1[i];
-            parent1Genes.add(parent1[i]);
+            descendant[offset + i] = genes1[offset1 + i];
+            parent1Genes[genes1[offset1 + i]] = true;
         }
 
         int positionParent2 = 0;
 
         for (int i = 0; i < startingPoint; i++) {
 
-            while (parent1Genes.contains(parent2[positionParent2])) {
-                if (positionParent2 + 1 < parent2.length) {
+            while (parent1Genes[genes2[offset2 + positionParent2]]) {
+                if (positionParent2 + 1 < length) {
                     positionParent2++;
                 } else {
                     break;
                 }
             }
 
-            descendant[i] = parent2[positionParent2];
+            descendant[offset + i] = genes2[offset2 + positionParent2];
             positionParent2++;
         }
 
-        for (int i = endPoint + 1; i < descendant.length; i++) {
+        for (int i = endPoint + 1; i < length; i++) {
 
-            while (parent1Genes.contains(parent2[positionParent2])) {
-                if (positionParent2 + 1 < parent2.length) {
+            while (parent1Genes[genes2[offset2 + positionParent2]]) {
+                if (positionParent2 + 1 < length) {
                     positionParent2++;
                 } else {
                     break;
                 }
             }
 
-            descendant[i] = parent2[positionParent2];
+            descendant[offset + i] = genes2[offset2 + positionParent2];
             positionParent2++;
         }
 
-        return descendant;
+        for (int i = startingPoint; i <= endPoint; i++) {
+            parent1Genes[genes1[offset1 + i]] = false;
+        }
     }
 }
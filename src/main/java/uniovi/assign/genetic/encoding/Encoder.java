@@ -21,11 +21,23 @@ public interface Encoder {
 
     /**
      * Decodes a chromosome representing an individual by an array of integers
-     * into a list of assignations.
+     * into a list of assignations. The list is a read-only view of the chromosome, so it is not copied and it
+     * reflects the changes of the chromosome.
      *
      * @param chromosome encoded individual represented as an array of integers.
      * @return list of assignments of the individual.
      */
     List<Assignment> decode(int[] chromosome);
 
+    /**
+     * Decodes a chromosome stored in a range of an array that may contain other chromosomes. The list is a
+     * read-only view of the range, so it reflects the changes of the chromosome.
+     *
+     * @param genes  array containing the chromosome.
+     * @param offset position of the first gene of the chromosome.
+     * @param length number of genes of the chromosome.
+     * @return list of assignments of the individual.
+     */
+    List<Assignment> decode(int[] genes, int offset, int length);
+
 }
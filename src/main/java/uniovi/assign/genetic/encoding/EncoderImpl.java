@@ -2,7 +2,7 @@ package uniovi.assign.genetic.encoding;
 
 import uniovi.assign.model.Assignment;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
@@ -49,19 +49,40 @@ public class EncoderImpl implements Encoder {
 
     /**
      * Decodes a chromosome representing an individual by an array of integers
-     * into a list of assignations.
+     * into a list of assignations. The list is a read-only view of the chromosome, so decoding
+     * a chromosome does not allocate a list as long as the chromosome.
      *
      * @param chromosomeEncoded encoded individual represented as an array of integers.
      * @return list of assignments of the individual.
      */
     @Override
     public List<Assignment> decode(int[] chromosomeEncoded) {
-        List<Assignment> chromosomeDecoded = new ArrayList<>();
-        for (int i = 0; i < chromosomeEncoded.length; i++) {
-            int position = chromosomeEncoded[i];
-            chromosomeDecoded.add(allAssignments.get(position));
-        }
+        return decode(chromosomeEncoded, 0, chromosomeEncoded.length);
+    }
+
+    /**
+     * Decodes a chromosome stored in a range of an array into a read-only view of its assignments.
+     *
+     * @param genes  array containing the chromosome.
+     * @param offset position of the first gene of the chromosome.
+     * @param length number of genes of the chromosome.
+     * @return list of assignments of the individual.
+     */
+    @Override
+    public List<Assignment> decode(int[] genes, int offset, int length) {
+        return new AbstractList<Assignment>() {
+            @Override
+            public Assignment get(int index) {
+                if (index < 0 || index >= length) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+                }
+                return allAssignments.get(genes[offset + index]);
+            }
 
-        return chromosomeDecoded;
+            @Override
+            public int size() {
+                return length;
+            }
+        };
     }
 }
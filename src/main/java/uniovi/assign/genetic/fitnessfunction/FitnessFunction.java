@@ -1,12 +1,21 @@
 package uniovi.assign.genetic.fitnessfunction;
 
 import uniovi.assign.genetic.population.Individual;
+import uniovi.assign.greedy.EvaluationStatistic;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Interface that must implement all the classes that represent alternatives for the fitness function
  */
 public interface FitnessFunction {
 
+    /**
+     * Fitness of an individual whose evaluation was abandoned because it could not be lower than the cutoff.
+     */
+    double REJECTED = Double.POSITIVE_INFINITY;
+
     /**
      * Calculates the fitness of an individual
      *
@@ -14,4 +23,43 @@ public interface FitnessFunction {
      * @return a number representing the fitness of the individual (greater is better)
      */
     double calculateFitness(Individual individual);
+
+    /**
+     * Returns the statistics of the individuals read by the fitness function. Only those statistics are
+     * calculated while the population evolves. By default all of them are required.
+     *
+     * @return statistics required for calculating the fitness
+     */
+    default Set<EvaluationStatistic> getRequiredStatistics() {
+        return EnumSet.allOf(EvaluationStatistic.class);
+    }
+
+    /**
+     * Calculates the fitness of an individual only if it can be lower than a cutoff. The implementations
+     * may abandon the evaluation as soon as they know that the fitness will not be lower, in which case
+     * the statistics of the individual are not calculated. By default the individual is completely evaluated.
+     *
+     * @param individual individual we want to calculate the fitness from
+     * @param cutoff     fitness that the individual must improve
+     * @return a number representing the fitness of the individual, or {@link #REJECTED} if it is not lower than the cutoff
+     */
+    default double calculateFitness(Individual individual, double cutoff) {
+        return calculateFitness(individual);
+    }
+
+    /**
+     * Returns the number of unsolved assignments from which a fitness function can not be lower than a cutoff,
+     * when each unsolved assignment adds a weight to the fitness and the rest of its terms are not negative.
+     *
+     * @param cutoff                   fitness that the individual must improve
+     * @param unsolvedAssignmentWeight weight of each unsolved assignment in the fitness
+     * @return minimum number of unsolved assignments that makes the fitness reach the cutoff
+     */
+    static int getUnsolvedAssignmentsLimit(double cutoff, double unsolvedAssignmentWeight) {
+        double limit = Math.ceil(cutoff / unsolvedAssignmentWeight);
+        if (Double.isNaN(limit) || limit >= Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(1, (int) limit);
+    }
 }
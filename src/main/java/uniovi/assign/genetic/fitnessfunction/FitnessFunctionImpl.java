@@ -1,12 +1,19 @@
 package uniovi.assign.genetic.fitnessfunction;
 
 import uniovi.assign.genetic.population.Individual;
+import uniovi.assign.greedy.EvaluationStatistic;
 import uniovi.assign.greedy.GreedyAlgorithm;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Default fitness function used by the Genetic Algorithm
  */
 public class FitnessFunctionImpl implements FitnessFunction {
+
+    private static final int UNSOLVED_ASSIGNMENT_WEIGHT = 100;
+
     /**
      * Calculates the fitness of an individual taking into account the
      * number of unsolved assignations, the total variance, the max
@@ -19,8 +26,33 @@ public class FitnessFunctionImpl implements FitnessFunction {
      */
     @Override
     public double calculateFitness(Individual individual) {
-        GreedyAlgorithm greedyAlgorithm = GreedyAlgorithm.getInstance();
-        greedyAlgorithm.execute(individual);
-        return 100 * individual.getUnsolvedAssignments().size() + 1 * individual.getTotalVariance() + individual.getMaxDifferenceBetweenGroups() * 10 + individual.getTotalNumberOfFreeSlots() * 0.08 + individual.getTotalDaysWithLowNumOfClasses() * 0.2;
+        GreedyAlgorithm.getInstance().getEvaluator().execute(individual);
+        return fitness(individual);
+    }
+
+    /**
+     * Calculates the fitness of an individual, abandoning the greedy algorithm as soon as the
+     * unsolved assignments found make the fitness reach the cutoff.
+     *
+     * @param individual individual we want to calculate the fitness from.
+     * @param cutoff     fitness that the individual must improve.
+     * @return the fitness of the individual, or {@link #REJECTED} if it is not lower than the cutoff.
+     */
+    @Override
+    public double calculateFitness(Individual individual, double cutoff) {
+        int unsolvedAssignmentsLimit = FitnessFunction.getUnsolvedAssignmentsLimit(cutoff, UNSOLVED_ASSIGNMENT_WEIGHT);
+        if (!GreedyAlgorithm.getInstance().getEvaluator().execute(individual, unsolvedAssignmentsLimit)) {
+            return REJECTED;
+        }
+        return fitness(individual);
+    }
+
+    @Override
+    public Set<EvaluationStatistic> getRequiredStatistics() {
+        return EnumSet.of(EvaluationStatistic.GROUP_VARIANCES, EvaluationStatistic.STUDENT_TIMETABLES);
+    }
+
+    private double fitness(Individual individual) {
+        return UNSOLVED_ASSIGNMENT_WEIGHT * individual.getUnsolvedAssignments().size() + 1 * individual.getTotalVariance() + individual.getMaxDifferenceBetweenGroups() * 10 + individual.getTotalNumberOfFreeSlots() * 0.08 + individual.getTotalDaysWithLowNumOfClasses() * 0.2;
     }
 }
@@ -12,4 +12,13 @@ public interface Mutation {
      * @return mutated chromosome.
      */
     int[] mutate(int[] chromosome);
+
+    /**
+     * Mutates a chromosome stored in a range of an array that may contain other chromosomes.
+     *
+     * @param genes  array containing the chromosome.
+     * @param offset position of the first gene of the chromosome.
+     * @param length number of genes of the chromosome.
+     */
+    void mutate(int[] genes, int offset, int length);
 }
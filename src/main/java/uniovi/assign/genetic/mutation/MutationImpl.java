@@ -15,17 +15,29 @@ public class MutationImpl implements Mutation {
      */
     @Override
     public int[] mutate(int[] chromosome) {
-        int numberOfMutations = ThreadLocalRandom.current().nextInt(0, (int) (chromosome.length * 0.05));
+        mutate(chromosome, 0, chromosome.length);
+        return chromosome;
+    }
+
+    /**
+     * Mutate a chromosome stored in a range of an array by swaping between 0% and 5% of its positions.
+     *
+     * @param genes  array containing the chromosome.
+     * @param offset position of the first gene of the chromosome.
+     * @param length number of genes of the chromosome.
+     */
+    @Override
+    public void mutate(int[] genes, int offset, int length) {
+        int numberOfMutations = ThreadLocalRandom.current().nextInt(0, (int) (length * 0.05));
         for (int i = 0; i < numberOfMutations; i++) {
-            int positionGene1 = ThreadLocalRandom.current().nextInt(0, chromosome.length);
-            int positionGene2 = ThreadLocalRandom.current().nextInt(0, chromosome.length);
+            int positionGene1 = offset + ThreadLocalRandom.current().nextInt(0, length);
+            int positionGene2 = offset + ThreadLocalRandom.current().nextInt(0, length);
             while (positionGene1 == positionGene2) {
-                positionGene2 = ThreadLocalRandom.current().nextInt(0, chromosome.length);
+                positionGene2 = offset + ThreadLocalRandom.current().nextInt(0, length);
             }
-            int valueGene2 = chromosome[positionGene2];
-            chromosome[positionGene2] = chromosome[positionGene1];
-            chromosome[positionGene1] = valueGene2;
+            int valueGene2 = genes[positionGene2];
+            genes[positionGene2] = genes[positionGene1];
+            genes[positionGene1] = valueGene2;
         }
-        return chromosome;
     }
 }
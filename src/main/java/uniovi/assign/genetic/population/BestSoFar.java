@@ -0,0 +1,34 @@
+package uniovi.assign.genetic.population;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Best individual found so far by any of the populations that evolve at the same time. It is updated
+ * with a compare and set, so the populations never block each other to offer their best individuals
+ * and the reporter can read it at any moment.
+ */
+public class BestSoFar {
+
+    private final AtomicReference<Individual> best = new AtomicReference<>();
+
+    public Individual get() {
+        return best.get();
+    }
+
+    /**
+     * Replaces the best individual with another one if the new individual has a lower fitness.
+     *
+     * @param candidate individual already evaluated.
+     * @return true if the candidate is now the best individual.
+     */
+    public boolean offer(Individual candidate) {
+        Individual current = best.get();
+        while (current == null || candidate.getFitness() < current.getFitness()) {
+            if (best.compareAndSet(current, candidate)) {
+                return true;
+            }
+            current = best.get();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package uniovi.assign.genetic.population;
+
+import uniovi.assign.genetic.encoding.Encoder;
+
+/**
+ * Preallocated storage of a population that evolves by generations. There are two banks, one for the current
+ * generation and one for the next one: the descendants of each generation are written into the next bank, and
+ * the banks are swapped once the generation is complete, so nothing is allocated for the individuals of each
+ * generation.
+ * <p>
+ * Each bank stores the chromosomes of all its individuals one after another in a single array, and the results
+ * of their evaluation in primitive columns. The individuals of a bank are views of a slot of it, created once
+ * with the bank and reused by every generation written into it.
+ * <p>
+ * A bank is overwritten two generations later, so an individual that must outlive its generation has to be
+ * copied to an individual with its own chromosome.
+ */
+public class ChromosomeArena {
+
+    private final int length;
+    private final Encoder encoder;
+    private Bank current;
+    private Bank next;
+
+    /**
+     * Default constructor for an arena of chromosomes.
+     *
+     * @param length  number of genes of the chromosomes.
+     * @param encoder encoder used for decoding the chromosomes of the individuals.
+     */
+    public ChromosomeArena(int length, Encoder encoder) {
+        this.length = length;
+        this.encoder = encoder;
+        this.current = new Bank(0);
+        this.next = new Bank(0);
+    }
+
+    /**
+     * Makes sure that the next bank has a slot for each individual of the next generation. The bank is only
+     * allocated the first time, or when the population grows.
+     *
+     * @param size number of individuals of the next generation.
+     */
+    public void prepareNextGeneration(int size) {
+        if (next.individuals.length < size) {
+            next = new Bank(size);
+        }
+    }
+
+    /**
+     * Returns the individual of a slot of the next generation, without the evaluation of the previous
+     * individual of the slot. Its chromosome must be written before it is evaluated.
+     *
+     * @param slot position of the individual in the next generation.
+     * @return view of the slot.
+     */
+    public Individual getNextIndividual(int slot) {
+        Individual individual = next.individuals[slot];
+        individual.clearEvaluation();
+        return individual;
+    }
+
+    /**
+     * Makes the next generation the current one. The individuals of the old current generation are
+     * overwritten by the following generation.
+     */
+    public void swap() {
+        Bank swapped = current;
+        current = next;
+        next = swapped;
+    }
+
+    /**
+     * Chromosomes and evaluations of the individuals of a generation.
+     */
+    private class Bank {
+
+        private final Individual[] individuals;
+
+        Bank(int capacity) {
+            int[] genes = new int[capacity * length];
+            IndividualColumns columns = new IndividualColumns(capacity);
+            this.individuals = new Individual[capacity];
+            for (int slot = 0; slot < capacity; slot++) {
+                int offset = slot * length;
+                individuals[slot] = new Individual(encoder.decode(genes, offset, length), genes, offset, length, columns, slot);
+            }
+        }
+    }
+}
@@ -1,27 +1,29 @@
 package uniovi.assign.genetic.population;
 
+import uniovi.assign.greedy.EvaluationCheckpoints;
 import uniovi.assign.model.Assignment;
 
+import java.util.Arrays;
 import java.util.List;
 
 
 /**
  * Class that represents an individual treated by the genetic algorithm.
  * It represents a solution to the problem.
+ * <p>
+ * An individual is a view of its chromosome and of the results of its evaluation, which can be stored in
+ * the flat arrays of a {@link ChromosomeArena} shared by a whole population. An individual created with its
+ * own chromosome stores them by itself.
  */
 public class Individual {
 
     List<Assignment> assignments;
-    List<Assignment> unsolvedAssignments;
-    int totalDifferenceBetweenGroups = 0;
-    int[] encoding;
-    double fitness;
-    private double maxDifferenceBetweenGroups;
-    private double varianceBetweenDifferences;
-    private double maxVariance;
-    private double totalVariance;
-    private double totalNumberOfFreeSlots;
-    private double totalDaysWithLowNumOfClasses;
+    private int[] genes;
+    private int genesOffset;
+    private int numberOfGenes;
+    private final IndividualColumns columns;
+    private final int slot;
+    private List<EvaluationCheckpoints> parentCheckpoints;
 
 
     /**
@@ -30,7 +32,26 @@ public class Individual {
      * @param assignments list of assignments representing the individuals.
      */
     public Individual(List<Assignment> assignments) {
+        this(assignments, null, 0, 0, new IndividualColumns(1), 0);
+    }
+
+    /**
+     * Constructor for an individual that is a view of a slot of an arena.
+     *
+     * @param assignments   list of assignments representing the individual, a view of its genes.
+     * @param genes         array containing the chromosome of the individual.
+     * @param genesOffset   position of the first gene of the individual in the array.
+     * @param numberOfGenes length of the chromosome.
+     * @param columns       columns where the evaluation of the individual is stored.
+     * @param slot          position of the individual in the columns.
+     */
+    Individual(List<Assignment> assignments, int[] genes, int genesOffset, int numberOfGenes, IndividualColumns columns, int slot) {
         this.assignments = assignments;
+        this.genes = genes;
+        this.genesOffset = genesOffset;
+        this.numberOfGenes = numberOfGenes;
+        this.columns = columns;
+        this.slot = slot;
     }
 
 
@@ -39,87 +60,162 @@ public class Individual {
     }
 
     public double getFitness() {
-        return fitness;
+        return columns.fitness[slot];
     }
 
     public void setFitness(double fitness) {
-        this.fitness = fitness;
+        columns.fitness[slot] = fitness;
     }
 
     public List<Assignment> getUnsolvedAssignments() {
-        return unsolvedAssignments;
+        return columns.unsolvedAssignments[slot];
     }
 
     public void setUnsolvedAssignments(List<Assignment> unsolvedAssignments) {
-        this.unsolvedAssignments = unsolvedAssignments;
+        columns.unsolvedAssignments[slot] = unsolvedAssignments;
     }
 
+    /**
+     * Returns the chromosome of the individual. An individual that is a view of an arena returns a copy of
+     * its genes, see {@link #getGenes()} for reading them without copying.
+     *
+     * @return the chromosome of the individual, or null if it has not been encoded.
+     */
     public int[] getEncoding() {
-        return encoding;
+        if (genes == null || (genesOffset == 0 && numberOfGenes == genes.length)) {
+            return genes;
+        }
+        return Arrays.copyOfRange(genes, genesOffset, genesOffset + numberOfGenes);
     }
 
+    /**
+     * Sets the chromosome of the individual, which is not copied.
+     *
+     * @param encoding chromosome of the individual.
+     */
     public void setEncoding(int[] encoding) {
-        this.encoding = encoding;
+        this.genes = encoding;
+        this.genesOffset = 0;
+        this.numberOfGenes = encoding == null ? 0 : encoding.length;
+    }
+
+    /**
+     * Returns the array that contains the chromosome of the individual, which may contain the chromosomes
+     * of other individuals too. The chromosome starts at {@link #getGenesOffset()}.
+     *
+     * @return array containing the genes of the individual.
+     */
+    public int[] getGenes() {
+        return genes;
+    }
+
+    public int getGenesOffset() {
+        return genesOffset;
+    }
+
+    public int getNumberOfGenes() {
+        return numberOfGenes;
     }
 
     public int getTotalDifferenceBetweenGroups() {
-        return totalDifferenceBetweenGroups;
+        return columns.totalDifferenceBetweenGroups[slot];
     }
 
     public void setTotalDifferenceBetweenGroups(int totalDifferenceBetweenGroups) {
-        this.totalDifferenceBetweenGroups = totalDifferenceBetweenGroups;
+        columns.totalDifferenceBetweenGroups[slot] = totalDifferenceBetweenGroups;
     }
 
     public void setMaxDifferenceBetweenGroups(double maxDifferenceBetweenGroups) {
-        this.maxDifferenceBetweenGroups = maxDifferenceBetweenGroups;
+        columns.maxDifferenceBetweenGroups[slot] = maxDifferenceBetweenGroups;
     }
 
     public double getMaxDifferenceBetweenGroups() {
-        return maxDifferenceBetweenGroups;
+        return columns.maxDifferenceBetweenGroups[slot];
     }
 
 
     public void setVarianceBetweenDifferences(double varianceBetweenDifferences) {
-        this.varianceBetweenDifferences = varianceBetweenDifferences;
+        columns.varianceBetweenDifferences[slot] = varianceBetweenDifferences;
     }
 
     public double getVarianceBetweenDifferences() {
-        return varianceBetweenDifferences;
+        return columns.varianceBetweenDifferences[slot];
     }
 
     public double getMaxVariance() {
-        return maxVariance;
+        return columns.maxVariance[slot];
     }
 
     public void setMaxVariance(double maxVariance) {
-        this.maxVariance = maxVariance;
+        columns.maxVariance[slot] = maxVariance;
     }
 
     public void setTotalVariance(double totalVariance) {
-        this.totalVariance = totalVariance;
+        columns.totalVariance[slot] = totalVariance;
     }
 
     public double getTotalVariance() {
-        return totalVariance;
+        return columns.totalVariance[slot];
     }
 
     public double getTotalNumberOfFreeSlots() {
-        return totalNumberOfFreeSlots;
+        return columns.totalNumberOfFreeSlots[slot];
     }
 
     public void setTotalNumberOfFreeSlots(double totalNumberOfFreeSlots) {
-        this.totalNumberOfFreeSlots = totalNumberOfFreeSlots;
+        columns.totalNumberOfFreeSlots[slot] = totalNumberOfFreeSlots;
     }
 
     public void setTotalDaysWithLowNumOfClasses(double totalDaysWithLowNumOfClasses) {
-        this.totalDaysWithLowNumOfClasses = totalDaysWithLowNumOfClasses;
+        columns.totalDaysWithLowNumOfClasses[slot] = totalDaysWithLowNumOfClasses;
     }
 
     public double getTotalDaysWithLowNumOfClasses() {
-        return totalDaysWithLowNumOfClasses;
+        return columns.totalDaysWithLowNumOfClasses[slot];
+    }
+
+    public EvaluationCheckpoints getCheckpoints() {
+        return columns.checkpoints[slot];
+    }
+
+    public void setCheckpoints(EvaluationCheckpoints checkpoints) {
+        columns.checkpoints[slot] = checkpoints;
+    }
+
+    public List<EvaluationCheckpoints> getParentCheckpoints() {
+        return parentCheckpoints;
+    }
+
+    /**
+     * Sets the checkpoints of the parents of the individual, from which its evaluation can be resumed.
+     * They are discarded once the individual has been evaluated.
+     *
+     * @param parentCheckpoints checkpoints of the parents of the individual.
+     */
+    public void setParentCheckpoints(List<EvaluationCheckpoints> parentCheckpoints) {
+        this.parentCheckpoints = parentCheckpoints;
+    }
+
+    /**
+     * Copies another individual with a chromosome of the same length into this one: its genes and the result
+     * of its evaluation, so this individual does not have to be evaluated.
+     *
+     * @param other individual already evaluated.
+     */
+    public void copyFrom(Individual other) {
+        System.arraycopy(other.genes, other.genesOffset, genes, genesOffset, numberOfGenes);
+        columns.copy(slot, other.columns, other.slot);
+    }
+
+    /**
+     * Discards the result of the evaluation of the individual, so it can be reused for a new chromosome.
+     */
+    void clearEvaluation() {
+        columns.clear(slot);
+        this.parentCheckpoints = null;
     }
 
     public int getNumberOfCollisions() {
-        return unsolvedAssignments.size();
+        return getUnsolvedAssignments().size();
     }
 }
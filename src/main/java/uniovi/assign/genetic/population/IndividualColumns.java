@@ -0,0 +1,81 @@
+package uniovi.assign.genetic.population;
+
+import uniovi.assign.greedy.EvaluationCheckpoints;
+import uniovi.assign.model.Assignment;
+
+import java.util.List;
+
+/**
+ * Results of the evaluation of several individuals stored by columns: each statistic is a primitive array
+ * indexed by the slot of the individual, so the individuals of a population do not need their own fields.
+ */
+class IndividualColumns {
+
+    final double[] fitness;
+    final int[] totalDifferenceBetweenGroups;
+    final double[] maxDifferenceBetweenGroups;
+    final double[] varianceBetweenDifferences;
+    final double[] maxVariance;
+    final double[] totalVariance;
+    final double[] totalNumberOfFreeSlots;
+    final double[] totalDaysWithLowNumOfClasses;
+    final List<Assignment>[] unsolvedAssignments;
+    final EvaluationCheckpoints[] checkpoints;
+
+    /**
+     * Default constructor for the columns of some individuals that have not been evaluated.
+     *
+     * @param capacity number of individuals.
+     */
+    @SuppressWarnings("unchecked")
+    IndividualColumns(int capacity) {
+        this.fitness = new double[capacity];
+        this.totalDifferenceBetweenGroups = new int[capacity];
+        this.maxDifferenceBetweenGroups = new double[capacity];
+        this.varianceBetweenDifferences = new double[capacity];
+        this.maxVariance = new double[capacity];
+        this.totalVariance = new double[capacity];
+        this.totalNumberOfFreeSlots = new double[capacity];
+        this.totalDaysWithLowNumOfClasses = new double[capacity];
+        this.unsolvedAssignments = (List<Assignment>[]) new List[capacity];
+        this.checkpoints = new EvaluationCheckpoints[capacity];
+    }
+
+    /**
+     * Copies the evaluation of an individual into a slot.
+     *
+     * @param slot       slot where the evaluation is copied.
+     * @param source     columns of the individual already evaluated.
+     * @param sourceSlot slot of the individual already evaluated.
+     */
+    void copy(int slot, IndividualColumns source, int sourceSlot) {
+        fitness[slot] = source.fitness[sourceSlot];
+        totalDifferenceBetweenGroups[slot] = source.totalDifferenceBetweenGroups[sourceSlot];
+        maxDifferenceBetweenGroups[slot] = source.maxDifferenceBetweenGroups[sourceSlot];
+        varianceBetweenDifferences[slot] = source.varianceBetweenDifferences[sourceSlot];
+        maxVariance[slot] = source.maxVariance[sourceSlot];
+        totalVariance[slot] = source.totalVariance[sourceSlot];
+        totalNumberOfFreeSlots[slot] = source.totalNumberOfFreeSlots[sourceSlot];
+        totalDaysWithLowNumOfClasses[slot] = source.totalDaysWithLowNumOfClasses[sourceSlot];
+        unsolvedAssignments[slot] = source.unsolvedAssignments[sourceSlot];
+        checkpoints[slot] = source.checkpoints[sourceSlot];
+    }
+
+    /**
+     * Discards the evaluation of the individual of a slot, so the slot can be reused by a new individual.
+     *
+     * @param slot slot of the individual.
+     */
+    void clear(int slot) {
+        fitness[slot] = 0;
+        totalDifferenceBetweenGroups[slot] = 0;
+        maxDifferenceBetweenGroups[slot] = 0;
+        varianceBetweenDifferences[slot] = 0;
+        maxVariance[slot] = 0;
+        totalVariance[slot] = 0;
+        totalNumberOfFreeSlots[slot] = 0;
+        totalDaysWithLowNumOfClasses[slot] = 0;
+        unsolvedAssignments[slot] = null;
+        checkpoints[slot] = null;
+    }
+}
@@ -1,66 +1,268 @@
 package uniovi.assign.greedy;
 
+import uniovi.assign.model.Class;
 import uniovi.assign.model.Group;
+import uniovi.assign.model.SimplifiedDate;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
- * Support class for the greedy algorithm that contains a boolean matrix representing the collisions between
+ * Support class for the greedy algorithm that contains a matrix representing the collisions between
  * all the groups in the planification.
+ * <p>
+ * Each group is identified by a dense index (its position in the list of groups). By default each row of
+ * the matrix is stored as a bitset packed in longs, which allows O(1) queries between any pair of groups.
+ * For very large timetables in which collisions are sparse, the matrix can be stored instead as a compressed
+ * sparse row (CSR) adjacency list, which only keeps the indexes of the collided groups of each group.
  */
 public class CollisionMatrix {
     Map<String, List<String>> mandatoryCollisions;
     Map<String, List<String>> collisionExceptions;
     List<Group> groups;
-    Map<Group, List<Group>> collisionMap = new HashMap<>();
-    boolean[][] collisionMatrix;
+    Map<Group, Integer> groupIndexes = new HashMap<>();
+    private final boolean sparse;
+    private final int wordsPerRow;
+    private long[] collisionBits;
+    private int[] adjacencyOffsets;
+    private int[] adjacentGroups;
 
     /**
-     * Default constructor for the collision matrix.
+     * Default constructor for the collision matrix. The collisions are stored as bitset rows.
      *
      * @param groups              list of all groups included in the planification.
      * @param collisionExceptions list of collision exceptions provided by the user.
      * @param mandatoryCollisions list of mandatory collisions provided by the user.
      */
     public CollisionMatrix(List<Group> groups, Map<String, List<String>> collisionExceptions, Map<String, List<String>> mandatoryCollisions) {
+        this(groups, collisionExceptions, mandatoryCollisions, false);
+    }
+
+    /**
+     * Constructor for the collision matrix that allows choosing how the collisions are stored.
+     *
+     * @param groups              list of all groups included in the planification.
+     * @param collisionExceptions list of collision exceptions provided by the user.
+     * @param mandatoryCollisions list of mandatory collisions provided by the user.
+     * @param sparse              true for storing the collisions as a sparse adjacency list (CSR) instead of bitset rows.
+     */
+    public CollisionMatrix(List<Group> groups, Map<String, List<String>> collisionExceptions, Map<String, List<String>> mandatoryCollisions, boolean sparse) {
         this.groups = groups;
-        this.collisionMatrix = new boolean[groups.size()][groups.size()];
+        for (int i = 0; i < groups.size(); i++) {
+            groupIndexes.put(groups.get(i), i);
+        }
         this.collisionExceptions = collisionExceptions;
         this.mandatoryCollisions = mandatoryCollisions;
+        this.sparse = sparse;
+        this.wordsPerRow = (groups.size() + 63) >>> 6;
         calculateCollisions();
     }
 
     /**
      * Method that generate the collision matrix taking into account the timetable of each group,
      * the collision exceptions and the mandatory collisions.
+     * <p>
+     * Instead of comparing every pair of groups, the classes of all the groups are sorted by their start
+     * and swept, so only the pairs of classes that really overlap are visited. As the collisions between
+     * timetables are symmetric each pair is found only once and then stored in both rows. Finally the
+     * exceptions and mandatory collisions of each group are applied to its row.
      */
     private void calculateCollisions() {
+        long[] collidedPairs = findOverlappingGroups();
+        int[] offsets = new int[groups.size() + 1];
+        for (long pair : collidedPairs) {
+            int group1 = (int) (pair >>> 32);
+            int group2 = (int) pair;
+            offsets[group1 + 1]++;
+            if (group1 != group2) {
+                offsets[group2 + 1]++;
+            }
+        }
+        for (int i = 0; i < groups.size(); i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] adjacent = new int[offsets[groups.size()]];
+        int[] positions = Arrays.copyOf(offsets, groups.size());
+        for (long pair : collidedPairs) {
+            int group1 = (int) (pair >>> 32);
+            int group2 = (int) pair;
+            adjacent[positions[group1]++] = group2;
+            if (group1 != group2) {
+                adjacent[positions[group2]++] = group1;
+            }
+        }
+
+        int[][] rows = new int[groups.size()][];
         for (int i = 0; i < groups.size(); i++) {
-            Group group = groups.get(i);
-            List<String> exceptions = collisionExceptions.get(group.getGroupId());
-            List<String> mandatoryColls = mandatoryCollisions.get(group.getGroupId());
-            List<Group> groupsCollided = new ArrayList<>();
-            for (int j = 0; j < groups.size(); j++) {
-                Group groupToTest = groups.get(j);
-                if (exceptions != null && exceptions.contains(groupToTest.getGroupId())) {
-                    collisionMatrix[i][j] = false;
-                } else if (mandatoryColls != null && mandatoryColls.contains(groupToTest.getGroupId())) {
-                    collisionMatrix[i][j] = true;
-                    groupsCollided.add(groupToTest);
-                } else {
-                    if (group.collide(groupToTest)) {
-                        collisionMatrix[i][j] = true;
-                        groupsCollided.add(groupToTest);
-                    }
+            rows[i] = Arrays.stream(adjacent, offsets[i], offsets[i + 1]).sorted().distinct().toArray();
+        }
+        applyUserCollisions(rows);
+
+        if (sparse) {
+            adjacencyOffsets = new int[groups.size() + 1];
+            for (int i = 0; i < groups.size(); i++) {
+                adjacencyOffsets[i + 1] = adjacencyOffsets[i] + rows[i].length;
+            }
+            adjacentGroups = new int[adjacencyOffsets[groups.size()]];
+            for (int i = 0; i < groups.size(); i++) {
+                System.arraycopy(rows[i], 0, adjacentGroups, adjacencyOffsets[i], rows[i].length);
+            }
+        } else {
+            collisionBits = new long[groups.size() * wordsPerRow];
+            for (int i = 0; i < groups.size(); i++) {
+                for (int j : rows[i]) {
+                    collisionBits[i * wordsPerRow + (j >>> 6)] |= 1L << j;
                 }
             }
-            collisionMap.put(group, groupsCollided);
         }
     }
 
+    /**
+     * Finds all the pairs of groups that have overlapping classes. The classes are sorted by their start and,
+     * for each class, only the following classes that start before it ends are checked. The work is split
+     * between the available cores.
+     *
+     * @return array containing each pair of collided groups once, packed as (lowest index, highest index).
+     */
+    private long[] findOverlappingGroups() {
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            for (Class lecture : groups.get(i).getClasses()) {
+                intervals.add(new long[]{minuteOfTheWeek(lecture.getStartDate()), minuteOfTheWeek(lecture.getEndDate()), i});
+            }
+        }
+        intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        int[] owners = new int[intervals.size()];
+        for (int i = 0; i < intervals.size(); i++) {
+            starts[i] = intervals.get(i)[0];
+            ends[i] = intervals.get(i)[1];
+            owners[i] = (int) intervals.get(i)[2];
+        }
+
+        return IntStream.range(0, starts.length).parallel().boxed().flatMapToLong(i -> {
+            LongStream.Builder pairs = LongStream.builder();
+            for (int j = i; j < starts.length && starts[j] < ends[i]; j++) {
+                // Same condition as Group.collide, which also makes a group collide with itself
+                if (starts[i] < ends[j] && ends[i] > starts[j]) {
+                    int group1 = Math.min(owners[i], owners[j]);
+                    int group2 = Math.max(owners[i], owners[j]);
+                    pairs.add(((long) group1 << 32) | group2);
+                }
+            }
+            return pairs.build();
+        }).toArray();
+    }
+
+    /**
+     * Applies the collision exceptions and the mandatory collisions to the rows of the matrix. The exceptions
+     * have preference over the mandatory collisions.
+     *
+     * @param rows sorted indexes of the collided groups of each group, they are replaced when they change.
+     */
+    private void applyUserCollisions(int[][] rows) {
+        Map<String, Integer> indexesById = new HashMap<>();
+        for (int i = 0; i < groups.size(); i++) {
+            indexesById.put(groups.get(i).getGroupId(), i);
+        }
+        for (int i = 0; i < groups.size(); i++) {
+            String groupId = groups.get(i).getGroupId();
+            Set<Integer> exceptions = toGroupIndexes(collisionExceptions.get(groupId), indexesById);
+            Set<Integer> mandatoryColls = toGroupIndexes(mandatoryCollisions.get(groupId), indexesById);
+            if (exceptions.isEmpty() && mandatoryColls.isEmpty()) {
+                continue;
+            }
+            Set<Integer> row = new TreeSet<>();
+            for (int collidedGroup : rows[i]) {
+                row.add(collidedGroup);
+            }
+            row.addAll(mandatoryColls);
+            row.removeAll(exceptions);
+            rows[i] = row.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private Set<Integer> toGroupIndexes(List<String> groupIds, Map<String, Integer> indexesById) {
+        Set<Integer> indexes = new HashSet<>();
+        if (groupIds != null) {
+            for (String groupId : groupIds) {
+                Integer index = indexesById.get(groupId);
+                if (index != null) {
+                    indexes.add(index);
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private static long minuteOfTheWeek(SimplifiedDate date) {
+        return (date.getDayOfTheWeek() * 24L + date.getHour()) * 60 + date.getMinutes();
+    }
+
+    /**
+     * Returns whether a group collides with another one. It takes constant time when the matrix is stored
+     * as bitset rows and logarithmic time in the number of collided groups when it is stored as a sparse adjacency list.
+     *
+     * @param group1 index of the first group.
+     * @param group2 index of the second group.
+     * @return true if the first group collides with the second one.
+     */
+    public boolean collides(int group1, int group2) {
+        if (sparse) {
+            return Arrays.binarySearch(adjacentGroups, adjacencyOffsets[group1], adjacencyOffsets[group1 + 1], group2) >= 0;
+        }
+        return (collisionBits[group1 * wordsPerRow + (group2 >>> 6)] & (1L << group2)) != 0;
+    }
+
+    /**
+     * Performs an action for the index of each group with whom a determined group collides, in increasing order.
+     *
+     * @param group  index of the group.
+     * @param action action to perform for each collided group.
+     */
+    public void forEachCollidedGroup(int group, IntConsumer action) {
+        if (sparse) {
+            for (int i = adjacencyOffsets[group]; i < adjacencyOffsets[group + 1]; i++) {
+                action.accept(adjacentGroups[i]);
+            }
+        } else {
+            int rowStart = group * wordsPerRow;
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = collisionBits[rowStart + word];
+                while (bits != 0) {
+                    action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the dense index of a group in the matrix.
+     *
+     * @param group group whose index we want to know.
+     * @return index of the group, or -1 if the group is not in the matrix.
+     */
+    public int getGroupIndex(Group group) {
+        Integer index = groupIndexes.get(group);
+        return index == null ? -1 : index;
+    }
+
+    public Group getGroup(int index) {
+        return groups.get(index);
+    }
+
+    public int getNumberOfGroups() {
+        return groups.size();
+    }
+
+    public boolean isSparse() {
+        return sparse;
+    }
+
     /**
      * Method that returns the complete list of groups with whom a determined group collides.
      *
@@ -68,7 +270,9 @@ public class CollisionMatrix {
      * @return list of groups that collide with the group passed as parameter.
      */
     public List<Group> getCollidedGroups(Group group) {
-        return collisionMap.get(group);
+        List<Group> collidedGroups = new ArrayList<>();
+        forEachCollidedGroup(getGroupIndex(group), index -> collidedGroups.add(groups.get(index)));
+        return collidedGroups;
     }
 
 }
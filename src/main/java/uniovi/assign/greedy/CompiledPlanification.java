@@ -0,0 +1,686 @@
+package uniovi.assign.greedy;
+
+import uniovi.assign.model.*;
+import uniovi.assign.model.Class;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the planification and the collision matrix compiled into integer indexes.
+ * Groups, subject classes, students and assignments are identified by their position, so the
+ * greedy evaluation can keep its state in plain arrays instead of writing into the model objects.
+ * <p>
+ * The relations between them are stored as primitive arrays. Relations with several elements, like the
+ * groups of a subject class, are stored in compressed sparse row (CSR) form: the elements of all the
+ * rows are stored in one array, and the row i goes from offsets[i] to offsets[i + 1]. The assignments
+ * are numbered student by student, so the assignments of a student are a contiguous range of indexes.
+ * <p>
+ * The assignments of subject classes with only one group always receive that group, so they are fixed.
+ * The rest of assignments are the variable ones, which are also numbered in the order of their indexes
+ * and are the genes of the chromosomes handled by the genetic algorithm.
+ * <p>
+ * Once built, an instance is never modified and can be shared between any number of threads.
+ */
+public class CompiledPlanification {
+
+    public static final int NO_ASSIGNMENT = -1;
+
+    private final List<Group> groups;
+    private final Map<Group, Integer> groupIndexes = new HashMap<>();
+    private final List<Assignment> assignments;
+    private final Map<Assignment, Integer> assignmentIndexes = new HashMap<>();
+
+    private final CollisionMatrix collisionMatrix;
+    private final long[] groupTimeSlotMasks;
+    private final boolean[] exactCollisionChecks;
+    private final int[] groupSubjectClasses;
+    private final long[] groupDaySlotMasks;
+    private final int[] groupPreferenceOffsets;
+    private final int[] groupPreferenceIds;
+
+    private final int[] subjectClassGroupOffsets;
+    private final int[] subjectClassGroupIds;
+    private final int[] groupPositions;
+    private final int[] occupancyBucketOffsets;
+    private final int[] statisticsSubjectClasses;
+    private final int[] statisticsOccurrences;
+
+    private final int[] assignmentStudents;
+    private final int[] assignmentSubjectClasses;
+    private final int[] studentAssignmentOffsets;
+    private final int[] fixedGroups;
+    private final long[] studentSubjectClassKeys;
+    private final int[] studentSubjectClassAssignments;
+    private final int[] nextAssignmentsOfSubjectClass;
+    private final int[] variableAssignmentIds;
+    private final int[] candidateOffsets;
+    private final long[] candidateBits;
+    private final int[] numberOfCandidates;
+
+    /**
+     * Default constructor for the compiled planification. The assignments of the students must have
+     * been already generated.
+     *
+     * @param collisionMatrix      collision matrix that contains the information about
+     *                             the collisions between class groups. Groups are identified by their index in the matrix.
+     * @param assigmentPreferences assignment preferences determined by the user
+     * @param planification        planification of the school
+     */
+    public CompiledPlanification(CollisionMatrix collisionMatrix, Map<Group, List<Group>> assigmentPreferences, Planification planification) {
+        this.collisionMatrix = collisionMatrix;
+        this.groups = new ArrayList<>();
+        for (int i = 0; i < collisionMatrix.getNumberOfGroups(); i++) {
+            groups.add(collisionMatrix.getGroup(i));
+            groupIndexes.put(groups.get(i), i);
+        }
+
+        Map<String, Integer> subjectClassIndexes = new HashMap<>();
+        List<SubjectClass> subjectClasses = new ArrayList<>();
+        this.groupSubjectClasses = new int[groups.size()];
+        this.groupDaySlotMasks = new long[groups.size() * Group.DAYS_PER_WEEK];
+        this.groupPreferenceOffsets = new int[groups.size() + 1];
+        List<int[]> preferenceRows = new ArrayList<>();
+        this.groupTimeSlotMasks = new long[groups.size() * Group.TIME_SLOT_MASK_LENGTH];
+        this.exactCollisionChecks = new boolean[groups.size()];
+        for (int i = 0; i < groups.size(); i++) {
+            System.arraycopy(groups.get(i).getTimeSlotMask(), 0, groupTimeSlotMasks, i * Group.TIME_SLOT_MASK_LENGTH, Group.TIME_SLOT_MASK_LENGTH);
+        }
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            groupSubjectClasses[i] = indexSubjectClass(group.getSubjectClass(), subjectClassIndexes, subjectClasses);
+            System.arraycopy(group.getDaySlotMasks(), 0, groupDaySlotMasks, i * Group.DAYS_PER_WEEK, Group.DAYS_PER_WEEK);
+            int groupIndex = i;
+            collisionMatrix.forEachCollidedGroup(i, collidedIndex -> {
+                // Mandatory collisions and classes outside the week are not visible in the masks
+                if (!overlap(groupTimeSlotMasks, groupIndex * Group.TIME_SLOT_MASK_LENGTH, groupTimeSlotMasks, collidedIndex * Group.TIME_SLOT_MASK_LENGTH)) {
+                    exactCollisionChecks[groupIndex] = true;
+                }
+            });
+            List<Group> preferences = assigmentPreferences.get(group);
+            preferenceRows.add(preferences == null ? new int[0] : toGroupIndexes(preferences));
+        }
+        this.groupPreferenceIds = toCompressedRows(preferenceRows, groupPreferenceOffsets);
+
+        List<Integer> statisticsIndexes = new ArrayList<>();
+        for (Subject subject : planification.getSubjects().values()) {
+            for (SubjectClass subjectClass : subject.getSubjectClasses()) {
+                statisticsIndexes.add(indexSubjectClass(subjectClass, subjectClassIndexes, subjectClasses));
+            }
+        }
+
+        this.assignments = new ArrayList<>();
+        List<Student> students = planification.getStudents();
+        this.studentAssignmentOffsets = new int[students.size() + 1];
+        for (int i = 0; i < students.size(); i++) {
+            for (Assignment assignment : students.get(i).getAssignments()) {
+                assignmentIndexes.put(assignment, assignments.size());
+                assignments.add(assignment);
+                indexSubjectClass(assignment.getSubjectClass(), subjectClassIndexes, subjectClasses);
+            }
+            studentAssignmentOffsets[i + 1] = assignments.size();
+        }
+        this.assignmentStudents = new int[assignments.size()];
+        this.assignmentSubjectClasses = new int[assignments.size()];
+        for (int i = 0; i < students.size(); i++) {
+            Arrays.fill(assignmentStudents, studentAssignmentOffsets[i], studentAssignmentOffsets[i + 1], i);
+        }
+        for (int i = 0; i < assignments.size(); i++) {
+            assignmentSubjectClasses[i] = subjectClassIndexes.get(assignments.get(i).getSubjectClass().getSubjectName());
+        }
+
+        this.subjectClassGroupOffsets = new int[subjectClasses.size() + 1];
+        List<int[]> subjectClassRows = new ArrayList<>();
+        for (SubjectClass subjectClass : subjectClasses) {
+            subjectClassRows.add(toGroupIndexes(subjectClass.getGroups()));
+        }
+        this.subjectClassGroupIds = toCompressedRows(subjectClassRows, subjectClassGroupOffsets);
+        this.groupPositions = new int[groups.size()];
+        Arrays.fill(groupPositions, -1);
+        for (int position = 0; position < subjectClassGroupIds.length; position++) {
+            groupPositions[subjectClassGroupIds[position]] = position;
+        }
+        // A group can not have more students than assignments has its subject class
+        this.occupancyBucketOffsets = new int[subjectClasses.size() + 1];
+        for (int subjectClass : assignmentSubjectClasses) {
+            occupancyBucketOffsets[subjectClass + 1]++;
+        }
+        for (int subjectClass = 0; subjectClass < subjectClasses.size(); subjectClass++) {
+            occupancyBucketOffsets[subjectClass + 1] += occupancyBucketOffsets[subjectClass] + 1;
+        }
+        this.studentSubjectClassKeys = new long[Integer.highestOneBit(Math.max(1, assignments.size())) * 4];
+        this.studentSubjectClassAssignments = new int[studentSubjectClassKeys.length];
+        this.nextAssignmentsOfSubjectClass = new int[assignments.size()];
+        indexStudentSubjectClasses();
+
+        this.fixedGroups = new int[assignments.size()];
+        int numberOfVariableAssignments = 0;
+        for (int i = 0; i < assignments.size(); i++) {
+            int subjectClass = assignmentSubjectClasses[i];
+            boolean fixed = subjectClassGroupOffsets[subjectClass + 1] - subjectClassGroupOffsets[subjectClass] == 1;
+            fixedGroups[i] = fixed ? subjectClassGroupIds[subjectClassGroupOffsets[subjectClass]] : EvaluationContext.NO_GROUP;
+            if (!fixed) {
+                numberOfVariableAssignments++;
+            }
+        }
+        this.variableAssignmentIds = new int[numberOfVariableAssignments];
+        for (int i = 0, variable = 0; i < assignments.size(); i++) {
+            if (fixedGroups[i] == EvaluationContext.NO_GROUP) {
+                variableAssignmentIds[variable++] = i;
+            }
+        }
+        this.candidateOffsets = new int[assignments.size() + 1];
+        for (int i = 0; i < assignments.size(); i++) {
+            int subjectClass = assignmentSubjectClasses[i];
+            candidateOffsets[i + 1] = candidateOffsets[i] + subjectClassGroupOffsets[subjectClass + 1] - subjectClassGroupOffsets[subjectClass];
+        }
+        this.candidateBits = new long[(candidateOffsets[assignments.size()] + 63) >>> 6];
+        this.numberOfCandidates = new int[assignments.size()];
+        compileCandidateGroups();
+        this.statisticsSubjectClasses = statisticsIndexes.stream().mapToInt(Integer::intValue).toArray();
+        this.statisticsOccurrences = new int[subjectClasses.size()];
+        for (int subjectClass : statisticsSubjectClasses) {
+            statisticsOccurrences[subjectClass]++;
+        }
+    }
+
+    /**
+     * Marks, for each assignment, the groups of its subject class that can be assigned to it taking into account
+     * only the fixed assignments of the student. The fixed assignments are made before any other and never leave
+     * their group, so a group that collides with one of them always collides with the timetable of the student.
+     */
+    private void compileCandidateGroups() {
+        for (int student = 0; student + 1 < studentAssignmentOffsets.length; student++) {
+            for (int assignment = studentAssignmentOffsets[student]; assignment < studentAssignmentOffsets[student + 1]; assignment++) {
+                int subjectClass = assignmentSubjectClasses[assignment];
+                for (int position = subjectClassGroupOffsets[subjectClass]; position < subjectClassGroupOffsets[subjectClass + 1]; position++) {
+                    if (!collidesWithFixedGroups(subjectClassGroupIds[position], student, assignment)) {
+                        int bit = candidateOffsets[assignment] + position - subjectClassGroupOffsets[subjectClass];
+                        candidateBits[bit >>> 6] |= 1L << bit;
+                        numberOfCandidates[assignment]++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether a group collides with the group of any fixed assignment of a student.
+     *
+     * @param group      index of the group.
+     * @param student    index of the student.
+     * @param assignment assignment of the student for which the group is a candidate, it is not checked.
+     * @return true if the group collides with a fixed group of the student.
+     */
+    private boolean collidesWithFixedGroups(int group, int student, int assignment) {
+        for (int studentAssignment = studentAssignmentOffsets[student]; studentAssignment < studentAssignmentOffsets[student + 1]; studentAssignment++) {
+            if (studentAssignment != assignment && fixedGroups[studentAssignment] != EvaluationContext.NO_GROUP
+                    && collide(group, fixedGroups[studentAssignment])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the open addressing hash table that gives the first assignment of each student for each subject
+     * class, chaining the following assignments of the same student and subject class, if any, in index order.
+     */
+    private void indexStudentSubjectClasses() {
+        int[] lastAssignments = new int[studentSubjectClassKeys.length];
+        Arrays.fill(nextAssignmentsOfSubjectClass, NO_ASSIGNMENT);
+        for (int assignment = 0; assignment < assignments.size(); assignment++) {
+            int slot = findStudentSubjectClassSlot(assignmentStudents[assignment], assignmentSubjectClasses[assignment]);
+            if (studentSubjectClassKeys[slot] == 0) {
+                studentSubjectClassKeys[slot] = studentSubjectClassKey(assignmentStudents[assignment], assignmentSubjectClasses[assignment]);
+                studentSubjectClassAssignments[slot] = assignment;
+            } else {
+                nextAssignmentsOfSubjectClass[lastAssignments[slot]] = assignment;
+            }
+            lastAssignments[slot] = assignment;
+        }
+    }
+
+    /**
+     * Returns the slot of the hash table that contains a pair of student and subject class, or the empty slot
+     * where it must be inserted.
+     *
+     * @param student      index of the student.
+     * @param subjectClass index of the subject class.
+     * @return slot of the pair in the hash table.
+     */
+    private int findStudentSubjectClassSlot(int student, int subjectClass) {
+        long key = studentSubjectClassKey(student, subjectClass);
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int mask = studentSubjectClassKeys.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (studentSubjectClassKeys[slot] != 0 && studentSubjectClassKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Packs a pair of student and subject class into a key of the hash table. The key is never 0, which marks the empty slots.
+     *
+     * @param student      index of the student.
+     * @param subjectClass index of the subject class.
+     * @return key of the pair.
+     */
+    private static long studentSubjectClassKey(int student, int subjectClass) {
+        return ((long) student << 32 | subjectClass) + 1;
+    }
+
+    /**
+     * Returns the index of a subject class, registering it if it was not indexed yet. Subject classes
+     * are identified by their name, the same criteria used by {@link SubjectClass#equals(Object)}.
+     *
+     * @param subjectClass        subject class to index.
+     * @param subjectClassIndexes indexes of the subject classes already registered.
+     * @param subjectClasses      subject classes already registered.
+     * @return index of the subject class.
+     */
+    private int indexSubjectClass(SubjectClass subjectClass, Map<String, Integer> subjectClassIndexes, List<SubjectClass> subjectClasses) {
+        if (subjectClass == null) {
+            return -1;
+        }
+        Integer index = subjectClassIndexes.get(subjectClass.getSubjectName());
+        if (index == null) {
+            index = subjectClasses.size();
+            subjectClasses.add(subjectClass);
+            subjectClassIndexes.put(subjectClass.getSubjectName(), index);
+        }
+        return index;
+    }
+
+    /**
+     * Concatenates several rows of indexes into one array, filling the offsets where each row starts.
+     *
+     * @param rows    rows to concatenate.
+     * @param offsets array of length rows + 1 that receives the start of each row and the total length at the end.
+     * @return array containing all the rows one after another.
+     */
+    private static int[] toCompressedRows(List<int[]> rows, int[] offsets) {
+        for (int i = 0; i < rows.size(); i++) {
+            offsets[i + 1] = offsets[i] + rows.get(i).length;
+        }
+        int[] values = new int[offsets[rows.size()]];
+        for (int i = 0; i < rows.size(); i++) {
+            System.arraycopy(rows.get(i), 0, values, offsets[i], rows.get(i).length);
+        }
+        return values;
+    }
+
+    /**
+     * Translates a list of groups into the list of their indexes.
+     *
+     * @param groupList groups to translate.
+     * @return indexes of the groups in the same order.
+     */
+    private int[] toGroupIndexes(List<Group> groupList) {
+        int[] indexes = new int[groupList.size()];
+        int size = 0;
+        for (Group group : groupList) {
+            Integer index = groupIndexes.get(group);
+            if (index != null) {
+                indexes[size++] = index;
+            }
+        }
+        return size == indexes.length ? indexes : Arrays.copyOf(indexes, size);
+    }
+
+    /**
+     * Translates a list of assignments into the list of their indexes.
+     *
+     * @param assignmentList assignments to translate.
+     * @return indexes of the assignments in the same order.
+     */
+    public int[] toAssignmentIndexes(List<Assignment> assignmentList) {
+        int[] indexes = new int[assignmentList.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = assignmentIndexes.get(assignmentList.get(i));
+        }
+        return indexes;
+    }
+
+    public int getNumberOfGroups() {
+        return groups.size();
+    }
+
+    public int getNumberOfAssignments() {
+        return assignments.size();
+    }
+
+    public int getNumberOfStudents() {
+        return studentAssignmentOffsets.length - 1;
+    }
+
+    public int getNumberOfSubjectClasses() {
+        return subjectClassGroupOffsets.length - 1;
+    }
+
+    public Group getGroup(int group) {
+        return groups.get(group);
+    }
+
+    /**
+     * Returns the index of a group.
+     *
+     * @param group group of the planification.
+     * @return index of the group, or {@link EvaluationContext#NO_GROUP} if it is not a group of the planification.
+     */
+    public int getGroupIndex(Group group) {
+        return groupIndexes.getOrDefault(group, EvaluationContext.NO_GROUP);
+    }
+
+    public Assignment getAssignment(int assignment) {
+        return assignments.get(assignment);
+    }
+
+    public int getNumberOfVariableAssignments() {
+        return variableAssignmentIds.length;
+    }
+
+    /**
+     * Returns the index of the assignment that corresponds to a gene of the chromosomes.
+     *
+     * @param gene position of the assignment in the list of variable assignments.
+     * @return index of the assignment.
+     */
+    public int getVariableAssignment(int gene) {
+        return variableAssignmentIds[gene];
+    }
+
+    /**
+     * Returns the assignments that do not have a fixed group, ordered by their index. They are the genes
+     * of the chromosomes.
+     *
+     * @return new list of the variable assignments.
+     */
+    public List<Assignment> getVariableAssignments() {
+        List<Assignment> variableAssignments = new ArrayList<>(variableAssignmentIds.length);
+        for (int assignment : variableAssignmentIds) {
+            variableAssignments.add(assignments.get(assignment));
+        }
+        return variableAssignments;
+    }
+
+    /**
+     * Returns the group that an assignment always receives because it is the only group of its subject class.
+     *
+     * @param assignment index of the assignment.
+     * @return index of the group, or {@link EvaluationContext#NO_GROUP} if the assignment is not fixed.
+     */
+    public int getFixedGroup(int assignment) {
+        return fixedGroups[assignment];
+    }
+
+    /**
+     * Returns all the assignments ordered by their index.
+     *
+     * @return unmodifiable list of the assignments.
+     */
+    public List<Assignment> getAssignments() {
+        return Collections.unmodifiableList(assignments);
+    }
+
+    /**
+     * Returns whether a group collides with another one, following the same orientation as
+     * {@link CollisionMatrix#collides(int, int)}.
+     *
+     * @param group         group that is going to be assigned.
+     * @param assignedGroup group already assigned.
+     * @return true if the groups collide, false otherwise.
+     */
+    public boolean collide(int group, int assignedGroup) {
+        return collisionMatrix.collides(group, assignedGroup);
+    }
+
+    /**
+     * Returns whether a group of the subject class of an assignment may be assigned to it, that is, it does
+     * not collide with any fixed assignment of the student.
+     *
+     * @param assignment index of the assignment.
+     * @param group      index of a group of the subject class of the assignment.
+     * @return true if the group is a candidate for the assignment.
+     */
+    boolean isCandidateGroup(int assignment, int group) {
+        int bit = candidateOffsets[assignment] + groupPositions[group] - subjectClassGroupOffsets[assignmentSubjectClasses[assignment]];
+        return (candidateBits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    int getNumberOfCandidateGroups(int assignment) {
+        return numberOfCandidates[assignment];
+    }
+
+    /**
+     * Returns the fraction of the groups of the subject classes of the assignments of the chromosomes that
+     * are discarded beforehand because they collide with a fixed assignment of the student.
+     *
+     * @return fraction between 0 and 1 of the candidate groups discarded.
+     */
+    public double getDiscardedCandidatesRatio() {
+        long groupsOfSubjectClasses = 0;
+        long candidates = 0;
+        for (int assignment : variableAssignmentIds) {
+            groupsOfSubjectClasses += candidateOffsets[assignment + 1] - candidateOffsets[assignment];
+            candidates += numberOfCandidates[assignment];
+        }
+        return groupsOfSubjectClasses == 0 ? 0 : 1 - (double) candidates / groupsOfSubjectClasses;
+    }
+
+    /**
+     * Returns whether the collisions of a group can not be detected only with its time slot mask. It happens
+     * when the group has a mandatory collision with a group with which it does not share any slot.
+     *
+     * @param group index of the group.
+     * @return true if every collision of the group must be checked against the collision matrix.
+     */
+    boolean needsExactCollisionCheck(int group) {
+        return exactCollisionChecks[group];
+    }
+
+    /**
+     * Returns whether the time slot mask of a group shares any slot with a week occupancy mask.
+     *
+     * @param group     index of the group.
+     * @param masks     array containing the occupancy mask.
+     * @param maskStart position of the occupancy mask in the array.
+     * @return true if the group has class in any of the occupied slots.
+     */
+    boolean overlaps(int group, long[] masks, int maskStart) {
+        return overlap(groupTimeSlotMasks, group * Group.TIME_SLOT_MASK_LENGTH, masks, maskStart);
+    }
+
+    /**
+     * Adds the time slots of a group to a week occupancy mask.
+     *
+     * @param group     index of the group.
+     * @param masks     array containing the occupancy mask.
+     * @param maskStart position of the occupancy mask in the array.
+     */
+    void addTimeSlots(int group, long[] masks, int maskStart) {
+        int groupStart = group * Group.TIME_SLOT_MASK_LENGTH;
+        for (int i = 0; i < Group.TIME_SLOT_MASK_LENGTH; i++) {
+            masks[maskStart + i] |= groupTimeSlotMasks[groupStart + i];
+        }
+    }
+
+    private static boolean overlap(long[] masks1, int start1, long[] masks2, int start2) {
+        for (int i = 0; i < Group.TIME_SLOT_MASK_LENGTH; i++) {
+            if ((masks1[start1 + i] & masks2[start2 + i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getGroupSubjectClass(int group) {
+        return groupSubjectClasses[group];
+    }
+
+    /**
+     * Adds the slots occupied by a group in each day of the week to a set of day masks, as returned by
+     * {@link Group#getDaySlotMasks()}.
+     *
+     * @param group    index of the group.
+     * @param dayMasks one 48 bits mask for each day of the week.
+     */
+    void addDaySlots(int group, long[] dayMasks) {
+        int groupStart = group * Group.DAYS_PER_WEEK;
+        for (int day = 0; day < Group.DAYS_PER_WEEK; day++) {
+            dayMasks[day] |= groupDaySlotMasks[groupStart + day];
+        }
+    }
+
+    /**
+     * Returns the position in {@link #getGroupPreference(int)} of the first preference of a group.
+     *
+     * @param group index of the group.
+     * @return position of the first preference of the group.
+     */
+    int getGroupPreferencesStart(int group) {
+        return groupPreferenceOffsets[group];
+    }
+
+    /**
+     * Returns the position in {@link #getGroupPreference(int)} after the last preference of a group.
+     *
+     * @param group index of the group.
+     * @return position after the last preference of the group.
+     */
+    int getGroupPreferencesEnd(int group) {
+        return groupPreferenceOffsets[group + 1];
+    }
+
+    int getGroupPreference(int position) {
+        return groupPreferenceIds[position];
+    }
+
+    /**
+     * Returns the position in {@link #getSubjectClassGroup(int)} of the first group of a subject class.
+     *
+     * @param subjectClass index of the subject class.
+     * @return position of the first group of the subject class.
+     */
+    int getSubjectClassGroupsStart(int subjectClass) {
+        return subjectClassGroupOffsets[subjectClass];
+    }
+
+    /**
+     * Returns the position in {@link #getSubjectClassGroup(int)} after the last group of a subject class.
+     *
+     * @param subjectClass index of the subject class.
+     * @return position after the last group of the subject class.
+     */
+    int getSubjectClassGroupsEnd(int subjectClass) {
+        return subjectClassGroupOffsets[subjectClass + 1];
+    }
+
+    int getSubjectClassGroup(int position) {
+        return subjectClassGroupIds[position];
+    }
+
+    /**
+     * Returns the position of a group in {@link #getSubjectClassGroup(int)}, which is used to break the ties
+     * between groups with the same number of students.
+     *
+     * @param group index of the group.
+     * @return position of the group between the groups of its subject class, or -1 if it has no subject class.
+     */
+    int getGroupPosition(int group) {
+        return groupPositions[group];
+    }
+
+    /**
+     * Returns the total number of buckets needed for storing the groups of every subject class by their number
+     * of students. Each subject class has one bucket for each possible number of students of its groups.
+     *
+     * @return number of occupancy buckets.
+     */
+    int getNumberOfOccupancyBuckets() {
+        return occupancyBucketOffsets[occupancyBucketOffsets.length - 1];
+    }
+
+    /**
+     * Returns the bucket that contains the groups of a subject class that have a number of students.
+     *
+     * @param subjectClass     index of the subject class.
+     * @param numberOfStudents number of students of the groups.
+     * @return index of the bucket.
+     */
+    int getOccupancyBucket(int subjectClass, int numberOfStudents) {
+        return occupancyBucketOffsets[subjectClass] + numberOfStudents;
+    }
+
+    int[] getStatisticsSubjectClasses() {
+        return statisticsSubjectClasses;
+    }
+
+    /**
+     * Returns how many times a subject class appears in the list of subject classes used for the statistics.
+     *
+     * @param subjectClass index of the subject class.
+     * @return number of times the subject class is counted in the statistics.
+     */
+    int getStatisticsOccurrences(int subjectClass) {
+        return statisticsOccurrences[subjectClass];
+    }
+
+    public int getAssignmentStudent(int assignment) {
+        return assignmentStudents[assignment];
+    }
+
+    public int getAssignmentSubjectClass(int assignment) {
+        return assignmentSubjectClasses[assignment];
+    }
+
+    /**
+     * Returns the first assignment of a student for a subject class.
+     *
+     * @param student      index of the student.
+     * @param subjectClass index of the subject class.
+     * @return index of the first assignment, or {@link #NO_ASSIGNMENT} if the student does not have that subject class.
+     */
+    int getStudentAssignment(int student, int subjectClass) {
+        if (subjectClass < 0) {
+            return NO_ASSIGNMENT;
+        }
+        int slot = findStudentSubjectClassSlot(student, subjectClass);
+        return studentSubjectClassKeys[slot] == 0 ? NO_ASSIGNMENT : studentSubjectClassAssignments[slot];
+    }
+
+    /**
+     * Returns the next assignment of the same student for the same subject class as another assignment.
+     *
+     * @param assignment index of the assignment.
+     * @return index of the next assignment, or {@link #NO_ASSIGNMENT} if there are no more.
+     */
+    int getNextAssignmentOfSubjectClass(int assignment) {
+        return nextAssignmentsOfSubjectClass[assignment];
+    }
+
+    /**
+     * Returns the index of the first assignment of a student.
+     *
+     * @param student index of the student.
+     * @return index of the first assignment of the student.
+     */
+    int getStudentAssignmentsStart(int student) {
+        return studentAssignmentOffsets[student];
+    }
+
+    /**
+     * Returns the index after the last assignment of a student.
+     *
+     * @param student index of the student.
+     * @return index after the last assignment of the student.
+     */
+    int getStudentAssignmentsEnd(int student) {
+        return studentAssignmentOffsets[student + 1];
+    }
+}
@@ -0,0 +1,90 @@
+package uniovi.assign.greedy;
+
+import uniovi.assign.model.Assignment;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Counters of how many times each pair of student and subject class is left unsolved by the evaluations of
+ * the greedy algorithm. The pairs are identified by the index of their assignment in the {@link CompiledPlanification},
+ * so the counters are a plain array of integers.
+ * <p>
+ * The counters are updated atomically, so the evaluations made from several threads can share the heatmap, and
+ * only the unsolved assignments of each evaluation are visited.
+ */
+public class ConflictHeatmap {
+
+    private final CompiledPlanification planification;
+    private final AtomicIntegerArray unsolvedCounts;
+    private final LongAdder evaluations = new LongAdder();
+
+    /**
+     * Default constructor for a heatmap without any evaluation.
+     *
+     * @param planification compiled planification whose assignments are counted.
+     */
+    ConflictHeatmap(CompiledPlanification planification) {
+        this.planification = planification;
+        this.unsolvedCounts = new AtomicIntegerArray(planification.getNumberOfAssignments());
+    }
+
+    /**
+     * Counts the unsolved assignments of a finished evaluation.
+     *
+     * @param context context of the evaluation.
+     */
+    void record(EvaluationContext context) {
+        for (int i = 0; i < context.getNumberOfUnsolvedAssignments(); i++) {
+            unsolvedCounts.incrementAndGet(context.getUnsolvedAssignment(i));
+        }
+        evaluations.increment();
+    }
+
+    /**
+     * Counts the unsolved assignments of an evaluation whose result was already known.
+     *
+     * @param unsolvedAssignments indexes of the unsolved assignments.
+     */
+    void record(int[] unsolvedAssignments) {
+        for (int assignment : unsolvedAssignments) {
+            unsolvedCounts.incrementAndGet(assignment);
+        }
+        evaluations.increment();
+    }
+
+    public long getNumberOfEvaluations() {
+        return evaluations.sum();
+    }
+
+    public int getUnsolvedCount(int assignment) {
+        return unsolvedCounts.get(assignment);
+    }
+
+    public Assignment getAssignment(int assignment) {
+        return planification.getAssignment(assignment);
+    }
+
+    /**
+     * Returns the assignments that have been left unsolved most times, from the most conflictive one. The
+     * assignments that have never been left unsolved are not included, and the ties keep the order of the assignments.
+     *
+     * @param limit maximum number of assignments returned.
+     * @return indexes of the most conflictive assignments.
+     */
+    public int[] getMostConflictiveAssignments(int limit) {
+        int[] counts = new int[unsolvedCounts.length()];
+        for (int assignment = 0; assignment < counts.length; assignment++) {
+            counts[assignment] = unsolvedCounts.get(assignment);
+        }
+        return IntStream.range(0, counts.length)
+                .filter(assignment -> counts[assignment] > 0)
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer assignment) -> counts[assignment]).reversed())
+                .limit(limit)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
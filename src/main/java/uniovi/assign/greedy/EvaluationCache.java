@@ -0,0 +1,198 @@
+package uniovi.assign.greedy;
+
+import uniovi.assign.genetic.population.Individual;
+import uniovi.assign.model.Assignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded cache with the results of the greedy algorithm for the chromosomes already evaluated. The
+ * chromosomes are identified by a 64 bits hash of their genes, and each entry keeps a copy of its
+ * chromosome so a collision between two different chromosomes is never taken as a hit.
+ * <p>
+ * When the cache is full the least recently used entry is evicted. All the methods are synchronized,
+ * so the cache can be shared by the evaluations made from several threads.
+ */
+public class EvaluationCache {
+
+    private final int capacity;
+    private final LinkedHashMap<Long, EvaluationCache.Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Default constructor for the evaluation cache.
+     *
+     * @param capacity maximum number of chromosomes stored.
+     */
+    public EvaluationCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Long, EvaluationCache.Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, EvaluationCache.Entry> eldest) {
+                if (size() > EvaluationCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the result stored for a chromosome.
+     *
+     * @param chromosome indexes of the assignments in the order in which they are made.
+     * @return the result of the evaluation of the chromosome, or null if it is not in the cache.
+     */
+    synchronized Entry get(int[] chromosome) {
+        Entry entry = entries.get(hash(chromosome));
+        if (entry != null && Arrays.equals(entry.chromosome, chromosome)) {
+            hits++;
+            return entry;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Returns the result stored for a chromosome without counting the search as a hit or a miss, for the
+     * chromosomes that are evaluated again only to be reported.
+     *
+     * @param chromosome indexes of the assignments in the order in which they are made.
+     * @return the result of the evaluation of the chromosome, or null if it is not in the cache.
+     */
+    synchronized Entry peek(int[] chromosome) {
+        Entry entry = entries.get(hash(chromosome));
+        return entry != null && Arrays.equals(entry.chromosome, chromosome) ? entry : null;
+    }
+
+    /**
+     * Stores the result of the evaluation of a chromosome, replacing any other chromosome with the same hash.
+     *
+     * @param chromosome evaluated chromosome, it must not be modified afterwards.
+     * @param context    context with the final state of the evaluation.
+     * @param individual individual containing the statistics of the evaluation.
+     * @param statistics statistics calculated for the individual.
+     */
+    void put(int[] chromosome, EvaluationContext context, Individual individual, Set<EvaluationStatistic> statistics) {
+        Entry entry = new Entry(chromosome, context.createSnapshot(chromosome.length), individual, statistics);
+        synchronized (this) {
+            entries.put(hash(chromosome), entry);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the fraction of the searches in the cache that found the chromosome.
+     *
+     * @return fraction between 0 and 1 of the searches that were a hit.
+     */
+    public synchronized double getHitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Calculates a 64 bits hash of a chromosome, mixing each gene with the multiply and rotate steps of MurmurHash3.
+     *
+     * @param chromosome chromosome to hash.
+     * @return hash of the chromosome.
+     */
+    static long hash(int[] chromosome) {
+        long hash = chromosome.length;
+        for (int gene : chromosome) {
+            long k = gene * 0x87c37b91114253d5L;
+            k = Long.rotateLeft(k, 31) * 0x4cf5ad432745937fL;
+            hash ^= k;
+            hash = Long.rotateLeft(hash, 27) * 5 + 0x52dce729;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Result of the evaluation of a chromosome: the final state of the greedy algorithm and the statistics
+     * about the quality of the solution that were calculated.
+     */
+    static class Entry {
+
+        private final int[] chromosome;
+        private final EvaluationCheckpoints.Snapshot finalState;
+        private final Set<EvaluationStatistic> statistics;
+        private final int totalDifferenceBetweenGroups;
+        private final double maxDifferenceBetweenGroups;
+        private final double varianceBetweenDifferences;
+        private final double maxVariance;
+        private final double totalVariance;
+        private final double totalNumberOfFreeSlots;
+        private final double totalDaysWithLowNumOfClasses;
+
+        Entry(int[] chromosome, EvaluationCheckpoints.Snapshot finalState, Individual individual, Set<EvaluationStatistic> statistics) {
+            this.chromosome = chromosome;
+            this.finalState = finalState;
+            this.statistics = statistics;
+            this.totalDifferenceBetweenGroups = individual.getTotalDifferenceBetweenGroups();
+            this.maxDifferenceBetweenGroups = individual.getMaxDifferenceBetweenGroups();
+            this.varianceBetweenDifferences = individual.getVarianceBetweenDifferences();
+            this.maxVariance = individual.getMaxVariance();
+            this.totalVariance = individual.getTotalVariance();
+            this.totalNumberOfFreeSlots = individual.getTotalNumberOfFreeSlots();
+            this.totalDaysWithLowNumOfClasses = individual.getTotalDaysWithLowNumOfClasses();
+        }
+
+        EvaluationCheckpoints.Snapshot getFinalState() {
+            return finalState;
+        }
+
+        Set<EvaluationStatistic> getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Stores in an individual the unsolved assignments and the statistics of the evaluation. The statistics
+         * that were not calculated are stored as zero.
+         *
+         * @param individual    individual whose chromosome is the one of the entry.
+         * @param planification compiled planification used for the evaluation.
+         */
+        void applyTo(Individual individual, CompiledPlanification planification) {
+            List<Assignment> unsolvedAssignments = new ArrayList<>(finalState.unsolvedAssignments.length);
+            for (int assignment : finalState.unsolvedAssignments) {
+                unsolvedAssignments.add(planification.getAssignment(assignment));
+            }
+            individual.setUnsolvedAssignments(unsolvedAssignments);
+            individual.setTotalDifferenceBetweenGroups(totalDifferenceBetweenGroups);
+            individual.setMaxDifferenceBetweenGroups(maxDifferenceBetweenGroups);
+            individual.setVarianceBetweenDifferences(varianceBetweenDifferences);
+            individual.setMaxVariance(maxVariance);
+            individual.setTotalVariance(totalVariance);
+            individual.setTotalNumberOfFreeSlots(totalNumberOfFreeSlots);
+            individual.setTotalDaysWithLowNumOfClasses(totalDaysWithLowNumOfClasses);
+        }
+    }
+}
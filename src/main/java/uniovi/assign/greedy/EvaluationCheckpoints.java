@@ -0,0 +1,110 @@
+package uniovi.assign.greedy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshots of the state of the greedy algorithm taken at regular positions of the chromosome while
+ * an individual is evaluated. The state before making the assignment of a position only depends on the
+ * assignments of the previous positions, so another chromosome that shares that prefix can resume its
+ * evaluation from the snapshot instead of replaying the whole chromosome.
+ * <p>
+ * The snapshots are immutable, so the checkpoints of a descendant can share them with its parent.
+ */
+public class EvaluationCheckpoints {
+
+    private final int[] chromosome;
+    private final int interval;
+    private final List<Snapshot> snapshots = new ArrayList<>();
+
+    /**
+     * Default constructor for the checkpoints of a chromosome.
+     *
+     * @param chromosome indexes of the assignments in the order in which they are made.
+     * @param interval   number of positions of the chromosome between two snapshots.
+     */
+    EvaluationCheckpoints(int[] chromosome, int interval) {
+        this.chromosome = chromosome;
+        this.interval = interval;
+    }
+
+    int getInterval() {
+        return interval;
+    }
+
+    int getNumberOfSnapshots() {
+        return snapshots.size();
+    }
+
+    void addSnapshot(Snapshot snapshot) {
+        snapshots.add(snapshot);
+    }
+
+    /**
+     * Returns the first position in which a chromosome differs from the one of these checkpoints.
+     *
+     * @param other chromosome to compare.
+     * @return first position with a different assignment, or the length of the chromosomes if they are equal.
+     */
+    int firstDifference(int[] other) {
+        int length = Math.min(chromosome.length, other.length);
+        for (int i = 0; i < length; i++) {
+            if (chromosome[i] != other[i]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the last snapshot taken before a position of the chromosome.
+     *
+     * @param position position of the chromosome.
+     * @return the snapshot with the highest position that is not greater than the position given, or null if there is none.
+     */
+    Snapshot getLastSnapshotBefore(int position) {
+        Snapshot result = null;
+        for (Snapshot snapshot : snapshots) {
+            if (snapshot.position > position) {
+                break;
+            }
+            result = snapshot;
+        }
+        return result;
+    }
+
+    /**
+     * Adds to other checkpoints the snapshots taken until a position of the chromosome.
+     *
+     * @param other    checkpoints that receive the snapshots.
+     * @param position last position whose snapshot is copied.
+     */
+    void copySnapshotsTo(EvaluationCheckpoints other, int position) {
+        for (Snapshot snapshot : snapshots) {
+            if (snapshot.position > position) {
+                break;
+            }
+            other.addSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * State of the greedy algorithm just before making the assignment of a position of the chromosome.
+     * Only the number of students of each group, the group of each assignment and the unsolved assignments
+     * are stored, the rest of the state of the evaluation is rebuilt from them.
+     */
+    static class Snapshot {
+
+        final int position;
+        final int[] groupOccupancy;
+        final int[] assignedGroups;
+        final int[] unsolvedAssignments;
+
+        Snapshot(int position, int[] groupOccupancy, int[] assignedGroups, int[] unsolvedAssignments) {
+            this.position = position;
+            this.groupOccupancy = groupOccupancy;
+            this.assignedGroups = assignedGroups;
+            this.unsolvedAssignments = unsolvedAssignments;
+        }
+    }
+}
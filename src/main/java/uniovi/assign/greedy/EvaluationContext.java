@@ -0,0 +1,568 @@
+package uniovi.assign.greedy;
+
+import uniovi.assign.model.Assignment;
+import uniovi.assign.model.Group;
+import uniovi.assign.model.OccupancyStatistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Private state of one execution of the greedy algorithm. It contains the number of students
+ * assigned to each group and the group chosen for each assignment, so several evaluations can
+ * run at the same time over the same {@link CompiledPlanification}.
+ * <p>
+ * The context also keeps the statistics of the number of students of the groups of each subject class,
+ * and the sum of the differences between groups, updated on every change so the balance of the
+ * solution can be read at the end without iterating over the groups.
+ * <p>
+ * The groups of each subject class are kept in bucket queues by their number of students, one doubly linked
+ * list for each number of students. The non empty buckets of each subject class are also linked in increasing
+ * order, so the groups can be visited from the least loaded one without looking at the empty buckets, and
+ * moving a group to the next or previous bucket when a student is added or removed takes constant time.
+ */
+public class EvaluationContext {
+
+    public static final int NO_GROUP = -1;
+    static final int NO_BUCKET = -1;
+
+    private final CompiledPlanification planification;
+    private final int[] groupOccupancy;
+    private final int[] assignedGroups;
+    private final long[] studentOccupancy;
+    private final OccupancyStatistics[] subjectClassStatistics;
+    private final int[] bucketHeads;
+    private final int[] nextNonEmptyBuckets;
+    private final int[] previousNonEmptyBuckets;
+    private final int[] nextGroupsInBucket;
+    private final int[] previousGroupsInBucket;
+    private long totalDifferenceBetweenGroups;
+    private long totalSquaredDifferenceBetweenGroups;
+    private int[] unsolvedAssignments = new int[16];
+    private int numberOfUnsolvedAssignments;
+
+    private int[] collisions = new int[16];
+    private int numberOfCollisions;
+    private int[] candidateCollisions;
+    private int[] changes = new int[16];
+    private int numberOfChanges;
+    private int remainingRepairVisits;
+
+    /**
+     * Default constructor for an evaluation context. All the groups start empty and no assignment
+     * has a group.
+     *
+     * @param planification compiled planification that is going to be evaluated.
+     */
+    public EvaluationContext(CompiledPlanification planification) {
+        this.planification = planification;
+        this.groupOccupancy = new int[planification.getNumberOfGroups()];
+        this.assignedGroups = new int[planification.getNumberOfAssignments()];
+        Arrays.fill(assignedGroups, NO_GROUP);
+        this.studentOccupancy = new long[planification.getNumberOfStudents() * Group.TIME_SLOT_MASK_LENGTH];
+        this.subjectClassStatistics = new OccupancyStatistics[planification.getNumberOfSubjectClasses()];
+        for (int subjectClass = 0; subjectClass < subjectClassStatistics.length; subjectClass++) {
+            subjectClassStatistics[subjectClass] = new OccupancyStatistics();
+        }
+        for (int group = 0; group < groupOccupancy.length; group++) {
+            int subjectClass = planification.getGroupSubjectClass(group);
+            if (subjectClass >= 0) {
+                subjectClassStatistics[subjectClass].addGroup(0);
+            }
+        }
+        this.bucketHeads = new int[planification.getNumberOfOccupancyBuckets()];
+        this.nextNonEmptyBuckets = new int[bucketHeads.length];
+        this.previousNonEmptyBuckets = new int[bucketHeads.length];
+        this.nextGroupsInBucket = new int[groupOccupancy.length];
+        this.previousGroupsInBucket = new int[groupOccupancy.length];
+        buildBuckets();
+    }
+
+    /**
+     * Copy constructor. The new context starts with the same assignments as the base context, and
+     * they evolve independently afterwards.
+     *
+     * @param base context to be copied.
+     */
+    EvaluationContext(EvaluationContext base) {
+        this.planification = base.planification;
+        this.groupOccupancy = base.groupOccupancy.clone();
+        this.assignedGroups = base.assignedGroups.clone();
+        this.studentOccupancy = base.studentOccupancy.clone();
+        this.subjectClassStatistics = new OccupancyStatistics[base.subjectClassStatistics.length];
+        for (int subjectClass = 0; subjectClass < subjectClassStatistics.length; subjectClass++) {
+            subjectClassStatistics[subjectClass] = new OccupancyStatistics(base.subjectClassStatistics[subjectClass]);
+        }
+        this.bucketHeads = base.bucketHeads.clone();
+        this.nextNonEmptyBuckets = base.nextNonEmptyBuckets.clone();
+        this.previousNonEmptyBuckets = base.previousNonEmptyBuckets.clone();
+        this.nextGroupsInBucket = base.nextGroupsInBucket.clone();
+        this.previousGroupsInBucket = base.previousGroupsInBucket.clone();
+        this.totalDifferenceBetweenGroups = base.totalDifferenceBetweenGroups;
+        this.totalSquaredDifferenceBetweenGroups = base.totalSquaredDifferenceBetweenGroups;
+        this.unsolvedAssignments = Arrays.copyOf(base.unsolvedAssignments, Math.max(16, base.numberOfUnsolvedAssignments));
+        this.numberOfUnsolvedAssignments = base.numberOfUnsolvedAssignments;
+    }
+
+    /**
+     * Constructor for an evaluation context that resumes the state stored in a snapshot. The occupancy of the
+     * students, the statistics of the subject classes and the buckets are rebuilt from the groups of the snapshot.
+     *
+     * @param planification compiled planification that is being evaluated.
+     * @param snapshot      state of a previous evaluation.
+     */
+    EvaluationContext(CompiledPlanification planification, EvaluationCheckpoints.Snapshot snapshot) {
+        this.planification = planification;
+        this.groupOccupancy = snapshot.groupOccupancy.clone();
+        this.assignedGroups = snapshot.assignedGroups.clone();
+        this.studentOccupancy = new long[planification.getNumberOfStudents() * Group.TIME_SLOT_MASK_LENGTH];
+        for (int assignment = 0; assignment < assignedGroups.length; assignment++) {
+            if (assignedGroups[assignment] != NO_GROUP) {
+                planification.addTimeSlots(assignedGroups[assignment], studentOccupancy, planification.getAssignmentStudent(assignment) * Group.TIME_SLOT_MASK_LENGTH);
+            }
+        }
+        this.subjectClassStatistics = new OccupancyStatistics[planification.getNumberOfSubjectClasses()];
+        for (int subjectClass = 0; subjectClass < subjectClassStatistics.length; subjectClass++) {
+            subjectClassStatistics[subjectClass] = new OccupancyStatistics();
+        }
+        for (int group = 0; group < groupOccupancy.length; group++) {
+            int subjectClass = planification.getGroupSubjectClass(group);
+            if (subjectClass >= 0) {
+                subjectClassStatistics[subjectClass].addGroup(groupOccupancy[group]);
+            }
+        }
+        this.bucketHeads = new int[planification.getNumberOfOccupancyBuckets()];
+        this.nextNonEmptyBuckets = new int[bucketHeads.length];
+        this.previousNonEmptyBuckets = new int[bucketHeads.length];
+        this.nextGroupsInBucket = new int[groupOccupancy.length];
+        this.previousGroupsInBucket = new int[groupOccupancy.length];
+        buildBuckets();
+        for (int subjectClass = 0; subjectClass < subjectClassStatistics.length; subjectClass++) {
+            long difference = subjectClassStatistics[subjectClass].getMaximumDifference();
+            totalDifferenceBetweenGroups += planification.getStatisticsOccurrences(subjectClass) * difference;
+            totalSquaredDifferenceBetweenGroups += planification.getStatisticsOccurrences(subjectClass) * difference * difference;
+        }
+        this.unsolvedAssignments = snapshot.unsolvedAssignments.length > 0 ? snapshot.unsolvedAssignments.clone() : new int[16];
+        this.numberOfUnsolvedAssignments = snapshot.unsolvedAssignments.length;
+    }
+
+    /**
+     * Takes a snapshot of the current state of the evaluation.
+     *
+     * @param position position of the chromosome whose assignment is going to be made next.
+     * @return snapshot of the state of the evaluation.
+     */
+    EvaluationCheckpoints.Snapshot createSnapshot(int position) {
+        return new EvaluationCheckpoints.Snapshot(position, groupOccupancy.clone(), assignedGroups.clone(),
+                Arrays.copyOf(unsolvedAssignments, numberOfUnsolvedAssignments));
+    }
+
+    public CompiledPlanification getPlanification() {
+        return planification;
+    }
+
+    public int getNumberOfStudents(int group) {
+        return groupOccupancy[group];
+    }
+
+    public int getGroup(int assignment) {
+        return assignedGroups[assignment];
+    }
+
+    public OccupancyStatistics getSubjectClassStatistics(int subjectClass) {
+        return subjectClassStatistics[subjectClass];
+    }
+
+    /**
+     * Returns the sum of the maximum differences between the groups of every subject class used in the statistics.
+     *
+     * @return sum of the differences between groups.
+     */
+    public long getTotalDifferenceBetweenGroups() {
+        return totalDifferenceBetweenGroups;
+    }
+
+    /**
+     * Returns the sum of the squares of the maximum differences between the groups of every subject class
+     * used in the statistics.
+     *
+     * @return sum of the squared differences between groups.
+     */
+    public long getTotalSquaredDifferenceBetweenGroups() {
+        return totalSquaredDifferenceBetweenGroups;
+    }
+
+    /**
+     * Assigns a group to an assignment that did not have any group.
+     *
+     * @param assignment assignment to be made.
+     * @param group      group selected for the assignment.
+     */
+    void assign(int assignment, int group) {
+        assignedGroups[assignment] = group;
+        changeOccupancy(group, 1);
+        planification.addTimeSlots(group, studentOccupancy, planification.getAssignmentStudent(assignment) * Group.TIME_SLOT_MASK_LENGTH);
+    }
+
+    /**
+     * Moves an assignment from its current group to a new one.
+     *
+     * @param assignment assignment to be moved.
+     * @param group      new group of the assignment.
+     */
+    void move(int assignment, int group) {
+        changeOccupancy(assignedGroups[assignment], -1);
+        assignedGroups[assignment] = group;
+        changeOccupancy(group, 1);
+        recalculateStudentOccupancy(planification.getAssignmentStudent(assignment));
+    }
+
+    /**
+     * Removes the group of an assignment.
+     *
+     * @param assignment assignment to be undone.
+     */
+    private void unassign(int assignment) {
+        changeOccupancy(assignedGroups[assignment], -1);
+        assignedGroups[assignment] = NO_GROUP;
+        recalculateStudentOccupancy(planification.getAssignmentStudent(assignment));
+    }
+
+    /**
+     * Changes the group of an assignment, remembering the previous one so the change can be undone
+     * with {@link #undoChanges(int)}.
+     *
+     * @param assignment assignment to be changed.
+     * @param group      new group of the assignment, {@link #NO_GROUP} for leaving it without group.
+     */
+    void reassign(int assignment, int group) {
+        if (numberOfChanges * 2 == changes.length) {
+            changes = Arrays.copyOf(changes, changes.length * 2);
+        }
+        changes[numberOfChanges * 2] = assignment;
+        changes[numberOfChanges * 2 + 1] = assignedGroups[assignment];
+        numberOfChanges++;
+        setGroup(assignment, group);
+    }
+
+    /**
+     * Undoes the last changes made with {@link #reassign(int, int)}, in reverse order.
+     *
+     * @param numberOfChanges number of changes that are kept.
+     */
+    void undoChanges(int numberOfChanges) {
+        while (this.numberOfChanges > numberOfChanges) {
+            this.numberOfChanges--;
+            setGroup(changes[this.numberOfChanges * 2], changes[this.numberOfChanges * 2 + 1]);
+        }
+    }
+
+    /**
+     * Forgets the changes made, so they can not be undone anymore.
+     */
+    void clearChanges() {
+        numberOfChanges = 0;
+    }
+
+    int getNumberOfChanges() {
+        return numberOfChanges;
+    }
+
+    int getChangedAssignment(int change) {
+        return changes[change * 2];
+    }
+
+    private void setGroup(int assignment, int group) {
+        int currentGroup = assignedGroups[assignment];
+        if (currentGroup == group) {
+            return;
+        }
+        if (currentGroup == NO_GROUP) {
+            assign(assignment, group);
+        } else if (group == NO_GROUP) {
+            unassign(assignment);
+        } else {
+            move(assignment, group);
+        }
+    }
+
+    void setRemainingRepairVisits(int remainingRepairVisits) {
+        this.remainingRepairVisits = remainingRepairVisits;
+    }
+
+    /**
+     * Counts the visit of a group by the current repair.
+     *
+     * @return true if the visit is allowed, false if the repair has exhausted its budget.
+     */
+    boolean consumeRepairVisit() {
+        if (remainingRepairVisits == 0) {
+            return false;
+        }
+        remainingRepairVisits--;
+        return true;
+    }
+
+    /**
+     * Changes the number of students of a group, updating the statistics and the buckets of its subject class.
+     *
+     * @param group index of the group.
+     * @param delta 1 when a student is added to the group, -1 when it is removed.
+     */
+    private void changeOccupancy(int group, int delta) {
+        int oldOccupancy = groupOccupancy[group];
+        groupOccupancy[group] = oldOccupancy + delta;
+        int subjectClass = planification.getGroupSubjectClass(group);
+        if (subjectClass >= 0) {
+            moveToBucket(group, planification.getOccupancyBucket(subjectClass, oldOccupancy),
+                    planification.getOccupancyBucket(subjectClass, oldOccupancy + delta), delta > 0);
+            OccupancyStatistics statistics = subjectClassStatistics[subjectClass];
+            long oldDifference = statistics.getMaximumDifference();
+            statistics.update(oldOccupancy, oldOccupancy + delta);
+            long newDifference = statistics.getMaximumDifference();
+            int occurrences = planification.getStatisticsOccurrences(subjectClass);
+            totalDifferenceBetweenGroups += occurrences * (newDifference - oldDifference);
+            totalSquaredDifferenceBetweenGroups += occurrences * (newDifference * newDifference - oldDifference * oldDifference);
+        }
+    }
+
+    /**
+     * Puts every group in the bucket of its current number of students and links the non empty buckets
+     * of each subject class in increasing order.
+     */
+    private void buildBuckets() {
+        Arrays.fill(bucketHeads, NO_GROUP);
+        Arrays.fill(nextNonEmptyBuckets, NO_BUCKET);
+        Arrays.fill(previousNonEmptyBuckets, NO_BUCKET);
+        for (int group = groupOccupancy.length - 1; group >= 0; group--) {
+            int subjectClass = planification.getGroupSubjectClass(group);
+            if (subjectClass >= 0) {
+                addToBucket(group, planification.getOccupancyBucket(subjectClass, groupOccupancy[group]));
+            }
+        }
+        for (int subjectClass = 0; subjectClass < subjectClassStatistics.length; subjectClass++) {
+            OccupancyStatistics statistics = subjectClassStatistics[subjectClass];
+            int previousBucket = NO_BUCKET;
+            for (int numberOfStudents = statistics.getMin(); statistics.getNumberOfGroups() > 0 && numberOfStudents <= statistics.getMax(); numberOfStudents++) {
+                int bucket = planification.getOccupancyBucket(subjectClass, numberOfStudents);
+                if (bucketHeads[bucket] != NO_GROUP) {
+                    linkBucket(bucket, previousBucket, NO_BUCKET);
+                    previousBucket = bucket;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves a group to the bucket of the next or the previous number of students. When the new bucket was
+     * empty it is linked next to the old one, and when the old bucket becomes empty it is unlinked.
+     *
+     * @param group     index of the group.
+     * @param oldBucket bucket that contains the group.
+     * @param newBucket bucket of the new number of students of the group.
+     * @param increased true if the group has one more student, false if it has one less.
+     */
+    private void moveToBucket(int group, int oldBucket, int newBucket, boolean increased) {
+        removeFromBucket(group, oldBucket);
+        if (bucketHeads[newBucket] == NO_GROUP) {
+            if (increased) {
+                linkBucket(newBucket, oldBucket, nextNonEmptyBuckets[oldBucket]);
+            } else {
+                linkBucket(newBucket, previousNonEmptyBuckets[oldBucket], oldBucket);
+            }
+        }
+        addToBucket(group, newBucket);
+        if (bucketHeads[oldBucket] == NO_GROUP) {
+            unlinkBucket(oldBucket);
+        }
+    }
+
+    private void addToBucket(int group, int bucket) {
+        int head = bucketHeads[bucket];
+        nextGroupsInBucket[group] = head;
+        previousGroupsInBucket[group] = NO_GROUP;
+        if (head != NO_GROUP) {
+            previousGroupsInBucket[head] = group;
+        }
+        bucketHeads[bucket] = group;
+    }
+
+    private void removeFromBucket(int group, int bucket) {
+        int next = nextGroupsInBucket[group];
+        int previous = previousGroupsInBucket[group];
+        if (previous == NO_GROUP) {
+            bucketHeads[bucket] = next;
+        } else {
+            nextGroupsInBucket[previous] = next;
+        }
+        if (next != NO_GROUP) {
+            previousGroupsInBucket[next] = previous;
+        }
+    }
+
+    private void linkBucket(int bucket, int previous, int next) {
+        previousNonEmptyBuckets[bucket] = previous;
+        nextNonEmptyBuckets[bucket] = next;
+        if (previous != NO_BUCKET) {
+            nextNonEmptyBuckets[previous] = bucket;
+        }
+        if (next != NO_BUCKET) {
+            previousNonEmptyBuckets[next] = bucket;
+        }
+    }
+
+    private void unlinkBucket(int bucket) {
+        int previous = previousNonEmptyBuckets[bucket];
+        int next = nextNonEmptyBuckets[bucket];
+        if (previous != NO_BUCKET) {
+            nextNonEmptyBuckets[previous] = next;
+        }
+        if (next != NO_BUCKET) {
+            previousNonEmptyBuckets[next] = previous;
+        }
+    }
+
+    /**
+     * Returns the bucket that contains the groups of a subject class with the lowest number of students.
+     * The following non empty buckets are obtained with {@link #getNextNonEmptyBucket(int)}.
+     *
+     * @param subjectClass index of the subject class.
+     * @return bucket of the least loaded groups of the subject class.
+     */
+    int getLeastLoadedBucket(int subjectClass) {
+        return planification.getOccupancyBucket(subjectClass, subjectClassStatistics[subjectClass].getMin());
+    }
+
+    int getNextNonEmptyBucket(int bucket) {
+        return nextNonEmptyBuckets[bucket];
+    }
+
+    /**
+     * Returns the first group of a bucket. The rest of the groups of the bucket are obtained with
+     * {@link #getNextGroupInBucket(int)}, in no particular order.
+     *
+     * @param bucket index of the bucket.
+     * @return first group of the bucket, or {@link #NO_GROUP} if the bucket is empty.
+     */
+    int getFirstGroupInBucket(int bucket) {
+        return bucketHeads[bucket];
+    }
+
+    int getNextGroupInBucket(int group) {
+        return nextGroupsInBucket[group];
+    }
+
+    /**
+     * Rebuilds the week occupancy mask of a student from the groups of all his assignments. Several assignments
+     * may share slots because of the collision exceptions, so the slots of a group can not be simply removed.
+     *
+     * @param student index of the student.
+     */
+    private void recalculateStudentOccupancy(int student) {
+        int maskStart = student * Group.TIME_SLOT_MASK_LENGTH;
+        Arrays.fill(studentOccupancy, maskStart, maskStart + Group.TIME_SLOT_MASK_LENGTH, 0L);
+        for (int studentAssignment = planification.getStudentAssignmentsStart(student); studentAssignment < planification.getStudentAssignmentsEnd(student); studentAssignment++) {
+            if (assignedGroups[studentAssignment] != NO_GROUP) {
+                planification.addTimeSlots(assignedGroups[studentAssignment], studentOccupancy, maskStart);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a group has classes in any of the slots of the week already occupied by a student.
+     *
+     * @param student index of the student.
+     * @param group   index of the group.
+     * @return true if the group shares any slot with the current timetable of the student.
+     */
+    boolean overlapsStudentTimetable(int student, int group) {
+        return planification.overlaps(group, studentOccupancy, student * Group.TIME_SLOT_MASK_LENGTH);
+    }
+
+    /**
+     * Returns the assignments that could not be made, in the order in which they were found.
+     *
+     * @return new list containing the unsolved assignments.
+     */
+    public List<Assignment> getUnsolvedAssignments() {
+        List<Assignment> unsolved = new ArrayList<>(numberOfUnsolvedAssignments);
+        for (int i = 0; i < numberOfUnsolvedAssignments; i++) {
+            unsolved.add(planification.getAssignment(unsolvedAssignments[i]));
+        }
+        return unsolved;
+    }
+
+    public int getNumberOfUnsolvedAssignments() {
+        return numberOfUnsolvedAssignments;
+    }
+
+    int getUnsolvedAssignment(int index) {
+        return unsolvedAssignments[index];
+    }
+
+    void addUnsolvedAssignment(int assignment) {
+        if (numberOfUnsolvedAssignments == unsolvedAssignments.length) {
+            unsolvedAssignments = Arrays.copyOf(unsolvedAssignments, numberOfUnsolvedAssignments * 2);
+        }
+        unsolvedAssignments[numberOfUnsolvedAssignments++] = assignment;
+    }
+
+    void clearCollisions() {
+        numberOfCollisions = 0;
+    }
+
+    void addCollision(int assignment) {
+        if (numberOfCollisions == collisions.length) {
+            collisions = Arrays.copyOf(collisions, numberOfCollisions * 2);
+        }
+        collisions[numberOfCollisions++] = assignment;
+    }
+
+    int getNumberOfCollisions() {
+        return numberOfCollisions;
+    }
+
+    int getCollision(int index) {
+        return collisions[index];
+    }
+
+    /**
+     * Stores the assignment of the student that collides with a candidate group, until the collisions of all the
+     * candidate groups are known and they can be added in order.
+     *
+     * @param group      index of the candidate group.
+     * @param assignment assignment that collides with the group.
+     */
+    void setCandidateCollision(int group, int assignment) {
+        if (candidateCollisions == null) {
+            candidateCollisions = new int[groupOccupancy.length];
+        }
+        candidateCollisions[group] = assignment;
+    }
+
+    int getCandidateCollision(int group) {
+        return candidateCollisions[group];
+    }
+
+    /**
+     * Writes the result of the evaluation into the model objects, setting the group of each assignment
+     * and the students of each group. It must not be called while other evaluations are
+     * reading the model.
+     */
+    public void applyToModel() {
+        for (int group = 0; group < planification.getNumberOfGroups(); group++) {
+            planification.getGroup(group).resetStudents();
+        }
+        for (int assignment = 0; assignment < assignedGroups.length; assignment++) {
+            Assignment modelAssignment = planification.getAssignment(assignment);
+            if (assignedGroups[assignment] == NO_GROUP) {
+                modelAssignment.setGroup(null);
+            } else {
+                Group group = planification.getGroup(assignedGroups[assignment]);
+                modelAssignment.setGroup(group);
+                group.addStudent(modelAssignment.getStudent());
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package uniovi.assign.greedy;
+
+/**
+ * Groups of statistics about the quality of a solution that the greedy evaluator can calculate for each
+ * individual. The fitness functions declare the ones they use, so the rest are not calculated while the
+ * population evolves.
+ */
+public enum EvaluationStatistic {
+
+    /**
+     * Sum of the differences between the groups of each subject class and the variance between those differences.
+     */
+    GROUP_DIFFERENCES,
+
+    /**
+     * Maximum difference between the groups of a subject class, maximum variance and total variance of the groups.
+     */
+    GROUP_VARIANCES,
+
+    /**
+     * Total number of free slots and of days with a low number of classes in the timetables of the students.
+     */
+    STUDENT_TIMETABLES
+}
@@ -0,0 +1,807 @@
+package uniovi.assign.greedy;
+
+import uniovi.assign.genetic.population.Individual;
+import uniovi.assign.model.Group;
+import uniovi.assign.model.OccupancyStatistics;
+import uniovi.assign.model.Student;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe implementation of the greedy algorithm. It works over an immutable
+ * {@link CompiledPlanification} and keeps all the state of each execution in its own
+ * {@link EvaluationContext}, so it never modifies the model and can evaluate many individuals
+ * at the same time from different threads.
+ * <p>
+ * The assignments made are the same that {@link GreedyAlgorithm#execute(Individual)} makes for the same individual.
+ * <p>
+ * When checkpoints are enabled, snapshots of the state are stored in each evaluated individual at regular
+ * positions of its chromosome. A descendant whose parents are known resumes its evaluation from the last
+ * snapshot of a parent taken before the first position in which their chromosomes differ.
+ * <p>
+ * When the cache is enabled, the results of the evaluated chromosomes are stored in an {@link EvaluationCache}
+ * and an individual whose chromosome is found there is not evaluated again.
+ * <p>
+ * An evaluation can be given a limit of unsolved assignments. As each unsolved assignment adds a fixed
+ * weight to the fitness and the rest of its terms are not negative, the evaluation is abandoned as soon
+ * as the limit is reached, because the individual could not be better than the one it has to replace.
+ * <p>
+ * When the repair depth is greater than one, an assignment that collides with every group is repaired with
+ * an ejection chain: it is placed in one of its groups, the assignments of the student that collide with it are
+ * ejected and placed again, ejecting others in turn up to that depth, and every change is undone if it fails.
+ * <p>
+ * When the conflict heatmap is enabled, the unsolved assignments of every evaluation are counted in a
+ * {@link ConflictHeatmap}.
+ * <p>
+ * Only the statistics set with {@link #setStatistics(Set)} are calculated for the evaluated individuals,
+ * the rest are left as zero until {@link #completeStatistics(Individual)} is called for them.
+ */
+public class GreedyEvaluator {
+
+    private static final Set<EvaluationStatistic> ALL_STATISTICS = Collections.unmodifiableSet(EnumSet.allOf(EvaluationStatistic.class));
+
+    private final CompiledPlanification planification;
+    private final EvaluationContext baseContext;
+    private volatile int numberOfCheckpoints;
+    private volatile EvaluationCache cache;
+    private volatile ConflictHeatmap conflictHeatmap;
+    private volatile Set<EvaluationStatistic> statistics = ALL_STATISTICS;
+    private volatile int repairDepth = 1;
+    private volatile int repairBudget = 64;
+    private final LongAdder resumedPositions = new LongAdder();
+    private final LongAdder evaluatedPositions = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder rejectedEvaluations = new LongAdder();
+
+    /**
+     * Default constructor for the greedy evaluator.
+     *
+     * @param planification compiled planification over which the individuals will be evaluated.
+     */
+    public GreedyEvaluator(CompiledPlanification planification) {
+        this.planification = planification;
+        this.baseContext = new EvaluationContext(planification);
+        preprocessing(baseContext);
+    }
+
+    public CompiledPlanification getPlanification() {
+        return planification;
+    }
+
+    public int getNumberOfCheckpoints() {
+        return numberOfCheckpoints;
+    }
+
+    /**
+     * Sets the number of snapshots of the state stored for each evaluated individual. Zero disables the checkpoints.
+     *
+     * @param numberOfCheckpoints number of snapshots taken along the chromosome of each individual.
+     */
+    public void setNumberOfCheckpoints(int numberOfCheckpoints) {
+        this.numberOfCheckpoints = Math.max(0, numberOfCheckpoints);
+    }
+
+    public EvaluationCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the maximum number of evaluated chromosomes whose results are kept in a cache, so they are not
+     * evaluated again. Zero disables the cache. The previous cache is discarded.
+     *
+     * @param cacheSize maximum number of chromosomes stored in the cache.
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cache = cacheSize > 0 ? new EvaluationCache(cacheSize) : null;
+    }
+
+    public ConflictHeatmap getConflictHeatmap() {
+        return conflictHeatmap;
+    }
+
+    /**
+     * Enables or disables the counting of the unsolved assignments of every evaluation. Enabling it
+     * discards the previous counts.
+     *
+     * @param enabled true for counting the unsolved assignments in a new heatmap.
+     */
+    public void setConflictHeatmapEnabled(boolean enabled) {
+        this.conflictHeatmap = enabled ? new ConflictHeatmap(planification) : null;
+    }
+
+    public Set<EvaluationStatistic> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Sets the statistics calculated for each evaluated individual. By default all of them are calculated.
+     *
+     * @param statistics statistics calculated for each evaluated individual.
+     */
+    public void setStatistics(Set<EvaluationStatistic> statistics) {
+        Set<EvaluationStatistic> copy = EnumSet.noneOf(EvaluationStatistic.class);
+        copy.addAll(statistics);
+        this.statistics = Collections.unmodifiableSet(copy);
+    }
+
+    public int getRepairDepth() {
+        return repairDepth;
+    }
+
+    /**
+     * Sets the maximum number of levels of assignments ejected when an assignment collides with every group.
+     * One only moves one of the collided assignments, as {@link GreedyAlgorithm} does.
+     *
+     * @param repairDepth maximum length of the ejection chains.
+     */
+    public void setRepairDepth(int repairDepth) {
+        this.repairDepth = Math.max(1, repairDepth);
+    }
+
+    public int getRepairBudget() {
+        return repairBudget;
+    }
+
+    /**
+     * Sets the maximum number of groups visited by each ejection chain, which bounds the cost of each repair.
+     *
+     * @param repairBudget maximum number of groups visited by each repair.
+     */
+    public void setRepairBudget(int repairBudget) {
+        this.repairBudget = Math.max(1, repairBudget);
+    }
+
+    /**
+     * Returns the fraction of the positions of the evaluated chromosomes that were not replayed because
+     * the evaluation was resumed from a checkpoint.
+     *
+     * @return fraction between 0 and 1 of the positions resumed from checkpoints.
+     */
+    public double getResumedPositionsRatio() {
+        long resumed = resumedPositions.sum();
+        long total = resumed + evaluatedPositions.sum();
+        return total == 0 ? 0 : (double) resumed / total;
+    }
+
+    public long getNumberOfEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getNumberOfRejectedEvaluations() {
+        return rejectedEvaluations.sum();
+    }
+
+    /**
+     * Executes the greedy algorithm over an individual and stores in it the list of unsolved
+     * assignments and the statistics about the quality of the solution. The model is not modified.
+     *
+     * @param individual individual to be evaluated by the greedy algorithm.
+     * @return the individual with the list of unsolved assignments and the statistics
+     * about the quality of the generated solution.
+     */
+    public Individual execute(Individual individual) {
+        Set<EvaluationStatistic> currentStatistics = statistics;
+        int[] chromosome = toChromosome(individual);
+        EvaluationCache.Entry cached = findInCache(chromosome, individual, currentStatistics);
+        if (cached == null) {
+            evaluate(individual, chromosome, Integer.MAX_VALUE, currentStatistics);
+        }
+        return individual;
+    }
+
+    /**
+     * Calculates all the statistics of an individual evaluated when only some of them were calculated.
+     * Only the individuals that are going to be reported need them, so the greedy algorithm is executed
+     * again as in {@link #evaluate(Individual)}, without counting it as an evaluation.
+     *
+     * @param individual individual already evaluated.
+     * @return the individual with all the statistics about the quality of the generated solution.
+     */
+    public Individual completeStatistics(Individual individual) {
+        if (!statistics.containsAll(ALL_STATISTICS)) {
+            calculateStatistics(replay(toChromosome(individual)), individual, ALL_STATISTICS);
+        }
+        return individual;
+    }
+
+    /**
+     * Executes the greedy algorithm over an individual unless it reaches a number of unsolved assignments.
+     * When the limit is reached the evaluation is abandoned: the statistics are not calculated and the
+     * result is neither cached nor used as checkpoints for the descendants.
+     *
+     * @param individual               individual to be evaluated by the greedy algorithm.
+     * @param unsolvedAssignmentsLimit number of unsolved assignments from which the individual is rejected.
+     * @return true if the individual was completely evaluated, false if it was rejected.
+     */
+    public boolean execute(Individual individual, int unsolvedAssignmentsLimit) {
+        Set<EvaluationStatistic> currentStatistics = statistics;
+        int[] chromosome = toChromosome(individual);
+        EvaluationCache.Entry cached = findInCache(chromosome, individual, currentStatistics);
+        if (cached != null) {
+            return individual.getUnsolvedAssignments().size() < unsolvedAssignmentsLimit;
+        }
+        EvaluationContext context = evaluate(individual, chromosome, unsolvedAssignmentsLimit, currentStatistics);
+        return context.getNumberOfUnsolvedAssignments() < unsolvedAssignmentsLimit;
+    }
+
+    /**
+     * Executes the greedy algorithm over an individual, storing in it the list of unsolved
+     * assignments and all the statistics about the quality of the solution. It is meant for reporting
+     * individuals already evaluated, so it is not counted as an evaluation, it is neither recorded in the
+     * heatmap nor in the cache, and no checkpoints are stored in the individual. If the individual is in
+     * the cache, the context is rebuilt from the final state stored in it.
+     *
+     * @param individual individual to be evaluated by the greedy algorithm.
+     * @return context containing the assignments made by the greedy algorithm.
+     */
+    public EvaluationContext evaluate(Individual individual) {
+        EvaluationContext context = replay(toChromosome(individual));
+        individual.setUnsolvedAssignments(context.getUnsolvedAssignments());
+        calculateStatistics(context, individual, ALL_STATISTICS);
+        return context;
+    }
+
+    /**
+     * Makes the assignments of a chromosome already evaluated, rebuilding them from the final state stored in
+     * the cache when it is there. Neither the search in the cache nor the evaluation are counted.
+     *
+     * @param chromosome indexes of the assignments in the order in which they must be made.
+     * @return context containing the assignments made.
+     */
+    private EvaluationContext replay(int[] chromosome) {
+        EvaluationCache currentCache = cache;
+        EvaluationCache.Entry cached = currentCache == null ? null : currentCache.peek(chromosome);
+        if (cached != null) {
+            return new EvaluationContext(planification, cached.getFinalState());
+        }
+        return evaluate(chromosome);
+    }
+
+    /**
+     * Returns the indexes of the assignments of an individual in the order in which they must be made. When
+     * the encoding of the individual is available, each gene is translated directly into the index of its
+     * variable assignment in the compiled planification.
+     *
+     * @param individual individual to be evaluated.
+     * @return indexes of the assignments of the individual.
+     */
+    private int[] toChromosome(Individual individual) {
+        int[] genes = individual.getGenes();
+        if (genes != null && individual.getNumberOfGenes() == planification.getNumberOfVariableAssignments()) {
+            int offset = individual.getGenesOffset();
+            int[] chromosome = new int[individual.getNumberOfGenes()];
+            for (int i = 0; i < chromosome.length; i++) {
+                chromosome[i] = planification.getVariableAssignment(genes[offset + i]);
+            }
+            return chromosome;
+        }
+        return planification.toAssignmentIndexes(individual.getAssignments());
+    }
+
+    /**
+     * Searches a chromosome in the cache, storing the statistics in the individual when it is found. The
+     * statistics required that were not calculated when the chromosome was cached are calculated from its final state.
+     *
+     * @param chromosome indexes of the assignments in the order in which they must be made.
+     * @param individual individual whose chromosome is searched.
+     * @param statistics statistics required for the individual.
+     * @return the entry of the cache, or null if the cache is disabled or the chromosome is not in it.
+     */
+    private EvaluationCache.Entry findInCache(int[] chromosome, Individual individual, Set<EvaluationStatistic> statistics) {
+        EvaluationCache currentCache = cache;
+        EvaluationCache.Entry cached = currentCache == null ? null : currentCache.get(chromosome);
+        if (cached != null) {
+            cached.applyTo(individual, planification);
+            individual.setParentCheckpoints(null);
+            ConflictHeatmap heatmap = conflictHeatmap;
+            if (heatmap != null) {
+                heatmap.record(cached.getFinalState().unsolvedAssignments);
+            }
+            if (!cached.getStatistics().containsAll(statistics)) {
+                calculateStatistics(new EvaluationContext(planification, cached.getFinalState()), individual, statistics);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Runs the greedy algorithm over the chromosome of an individual, storing the result in the individual and in the cache.
+     * If the limit of unsolved assignments is reached only the unsolved assignments found until then are stored.
+     *
+     * @param individual               individual to be evaluated by the greedy algorithm.
+     * @param chromosome               indexes of the assignments of the individual.
+     * @param unsolvedAssignmentsLimit number of unsolved assignments from which the evaluation is abandoned.
+     * @param statistics               statistics calculated for the individual.
+     * @return context containing the assignments made by the greedy algorithm.
+     */
+    private EvaluationContext evaluate(Individual individual, int[] chromosome, int unsolvedAssignmentsLimit,
+                                       Set<EvaluationStatistic> statistics) {
+        int checkpoints = numberOfCheckpoints;
+        EvaluationCheckpoints ownCheckpoints = null;
+        if (checkpoints > 0) {
+            ownCheckpoints = new EvaluationCheckpoints(chromosome, Math.max(1, chromosome.length / (checkpoints + 1)));
+        }
+        EvaluationContext context = evaluate(chromosome, individual.getParentCheckpoints(), ownCheckpoints, checkpoints, unsolvedAssignmentsLimit);
+        evaluations.increment();
+        individual.setParentCheckpoints(null);
+        individual.setUnsolvedAssignments(context.getUnsolvedAssignments());
+        if (context.getNumberOfUnsolvedAssignments() >= unsolvedAssignmentsLimit) {
+            rejectedEvaluations.increment();
+            return context;
+        }
+        individual.setCheckpoints(ownCheckpoints);
+        ConflictHeatmap heatmap = conflictHeatmap;
+        if (heatmap != null) {
+            heatmap.record(context);
+        }
+        calculateStatistics(context, individual, statistics);
+        EvaluationCache currentCache = cache;
+        if (currentCache != null) {
+            currentCache.put(chromosome, context, individual, statistics);
+        }
+        return context;
+    }
+
+    /**
+     * Makes all the assignments in the order specified by the chromosome. The algorithm tries to assign
+     * the class group with lower number of students that does not collide with the current assignments
+     * of the student, repairing the collisions when it is not possible.
+     *
+     * @param chromosome indexes of the assignments in the order in which they must be made.
+     * @return context containing the assignments made.
+     */
+    public EvaluationContext evaluate(int[] chromosome) {
+        return evaluate(chromosome, null, null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Builds a chromosome that leads the greedy algorithm to some target groups as closely as possible. The
+     * evaluation is simulated while the chromosome is built: each pass over the pending assignments appends the
+     * ones whose best group is already their target group, until a pass does not append any of them, and the
+     * rest are appended at the end in the given order. Each appended assignment is made as in {@link #evaluate(int[])},
+     * so evaluating the chromosome makes the assignments of the simulation.
+     *
+     * @param order        indexes of the assignments in the order in which they are tried.
+     * @param targetGroups target group of each assignment, or {@link EvaluationContext#NO_GROUP} if it has none.
+     * @return indexes of the same assignments in the order in which they must be made.
+     */
+    public int[] buildChromosome(int[] order, int[] targetGroups) {
+        EvaluationContext context = new EvaluationContext(baseContext);
+        int[] chromosome = new int[order.length];
+        int length = 0;
+        int[] pending = order.clone();
+        int numberOfPending = pending.length;
+        int previousNumberOfPending = -1;
+        while (numberOfPending != previousNumberOfPending) {
+            previousNumberOfPending = numberOfPending;
+            numberOfPending = 0;
+            for (int i = 0; i < previousNumberOfPending; i++) {
+                int assignment = pending[i];
+                int targetGroup = targetGroups[assignment];
+                if (context.getGroup(assignment) != EvaluationContext.NO_GROUP) {
+                    chromosome[length++] = assignment;
+                } else if (targetGroup != EvaluationContext.NO_GROUP && getBestGroup(context, assignment, false) == targetGroup) {
+                    context.assign(assignment, targetGroup);
+                    assignPreferences(context, assignment, targetGroup);
+                    chromosome[length++] = assignment;
+                } else {
+                    pending[numberOfPending++] = assignment;
+                }
+            }
+        }
+        System.arraycopy(pending, 0, chromosome, length, numberOfPending);
+        return chromosome;
+    }
+
+    /**
+     * Makes all the assignments in the order specified by the chromosome, resuming from the checkpoint
+     * of a parent that shares the longest prefix with it and taking its own checkpoints. The evaluation stops
+     * as soon as the limit of unsolved assignments is reached.
+     *
+     * @param chromosome               indexes of the assignments in the order in which they must be made.
+     * @param parentCheckpoints        checkpoints from which the evaluation can be resumed, it may be null.
+     * @param checkpoints              checkpoints where the snapshots of this evaluation are stored, null for not taking them.
+     * @param numberOfCheckpoints      maximum number of snapshots to take.
+     * @param unsolvedAssignmentsLimit number of unsolved assignments from which the evaluation is abandoned.
+     * @return context containing the assignments made.
+     */
+    private EvaluationContext evaluate(int[] chromosome, List<EvaluationCheckpoints> parentCheckpoints,
+                                       EvaluationCheckpoints checkpoints, int numberOfCheckpoints, int unsolvedAssignmentsLimit) {
+        EvaluationContext context = checkpoints == null ? null : resume(chromosome, parentCheckpoints, checkpoints);
+        int start = 0;
+        if (context == null) {
+            context = new EvaluationContext(baseContext);
+        } else {
+            start = checkpoints.getLastSnapshotBefore(chromosome.length).position;
+        }
+        if (checkpoints != null) {
+            resumedPositions.add(start);
+            evaluatedPositions.add(chromosome.length - start);
+        }
+
+        for (int position = start; position < chromosome.length
+                && context.getNumberOfUnsolvedAssignments() < unsolvedAssignmentsLimit; position++) {
+            if (checkpoints != null && position != start && position % checkpoints.getInterval() == 0
+                    && checkpoints.getNumberOfSnapshots() < numberOfCheckpoints) {
+                checkpoints.addSnapshot(context.createSnapshot(position));
+            }
+            int assignment = chromosome[position];
+            if (context.getGroup(assignment) == EvaluationContext.NO_GROUP) {
+                context.clearCollisions();
+                int selectedGroup = getBestGroup(context, assignment, true);
+                if (selectedGroup != EvaluationContext.NO_GROUP) {
+                    context.assign(assignment, selectedGroup);
+                    assignPreferences(context, assignment, selectedGroup);
+                } else {
+                    repairing(context, assignment);
+                }
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Restores the state of the last snapshot of the parents that can be used by a chromosome. The snapshots
+     * of the parent taken until that point are also valid for the chromosome, so they are shared with it.
+     *
+     * @param chromosome        indexes of the assignments in the order in which they must be made.
+     * @param parentCheckpoints checkpoints of the parents, it may be null.
+     * @param checkpoints       checkpoints of the chromosome, which receive the shared snapshots.
+     * @return context resumed from the snapshot, or null if no snapshot can be used.
+     */
+    private EvaluationContext resume(int[] chromosome, List<EvaluationCheckpoints> parentCheckpoints, EvaluationCheckpoints checkpoints) {
+        if (parentCheckpoints == null) {
+            return null;
+        }
+        EvaluationCheckpoints bestParent = null;
+        EvaluationCheckpoints.Snapshot bestSnapshot = null;
+        for (EvaluationCheckpoints parent : parentCheckpoints) {
+            if (parent != null && parent.getInterval() == checkpoints.getInterval()) {
+                EvaluationCheckpoints.Snapshot snapshot = parent.getLastSnapshotBefore(parent.firstDifference(chromosome));
+                if (snapshot != null && (bestSnapshot == null || snapshot.position > bestSnapshot.position)) {
+                    bestParent = parent;
+                    bestSnapshot = snapshot;
+                }
+            }
+        }
+        if (bestSnapshot == null) {
+            return null;
+        }
+        bestParent.copySnapshotsTo(checkpoints, bestSnapshot.position);
+        return new EvaluationContext(planification, bestSnapshot);
+    }
+
+    /**
+     * Preprocessing of assignments. Assigns directly those assignments that
+     * only have one group that can be assigned. The result is the same for every
+     * chromosome, so it is done only once and every evaluation starts from a copy of it.
+     * The fixed assignments are never moved afterwards, so they are skipped when they
+     * appear in a chromosome.
+     *
+     * @param context context in which the fixed assignments are made.
+     */
+    private void preprocessing(EvaluationContext context) {
+        for (int assignment = 0; assignment < planification.getNumberOfAssignments(); assignment++) {
+            int fixedGroup = planification.getFixedGroup(assignment);
+            if (fixedGroup != EvaluationContext.NO_GROUP) {
+                context.assign(assignment, fixedGroup);
+            }
+        }
+    }
+
+    /**
+     * Assigns the user preferences of the group selected for an assignment to the
+     * rest of assignments of the student that have not been made yet. The assignment of the
+     * student for the subject class of each preferred group is found directly in the index
+     * of the compiled planification.
+     *
+     * @param context       context of the evaluation.
+     * @param assignment    assignment that has been done.
+     * @param selectedGroup group that has been selected for the assignment.
+     */
+    private void assignPreferences(EvaluationContext context, int assignment, int selectedGroup) {
+        int student = planification.getAssignmentStudent(assignment);
+        for (int position = planification.getGroupPreferencesStart(selectedGroup); position < planification.getGroupPreferencesEnd(selectedGroup); position++) {
+            int groupPreference = planification.getGroupPreference(position);
+            int subjectClass = planification.getGroupSubjectClass(groupPreference);
+            for (int studentAssignment = planification.getStudentAssignment(student, subjectClass);
+                 studentAssignment != CompiledPlanification.NO_ASSIGNMENT;
+                 studentAssignment = planification.getNextAssignmentOfSubjectClass(studentAssignment)) {
+                if (context.getGroup(studentAssignment) == EvaluationContext.NO_GROUP
+                        && getAssignationWithCollision(context, student, groupPreference) == EvaluationContext.NO_GROUP) {
+                    context.assign(studentAssignment, groupPreference);
+                }
+            }
+        }
+    }
+
+    /**
+     * Repairing process. It tries to move the assignments that collide with the assignment that could
+     * not be made to other groups until it is possible to make it. If it is not possible, the
+     * assignment is stored as unsolved. When the repair depth is greater than one an ejection chain is used instead.
+     *
+     * @param context    context of the evaluation, containing the collisions found for the assignment.
+     * @param assignment assignment that could not be made.
+     */
+    private void repairing(EvaluationContext context, int assignment) {
+        int depth = repairDepth;
+        if (depth > 1) {
+            if (!repairByEjectionChain(context, assignment, depth)) {
+                context.addUnsolvedAssignment(assignment);
+            }
+            return;
+        }
+        for (int i = 0; i < context.getNumberOfCollisions(); i++) {
+            int assignmentCollided = context.getCollision(i);
+            int newGroup = getBestGroup(context, assignmentCollided, false);
+            if (newGroup != EvaluationContext.NO_GROUP) {
+                context.move(assignmentCollided, newGroup);
+
+                int newAssignmentGroup = getBestGroup(context, assignment, false);
+                if (newAssignmentGroup != EvaluationContext.NO_GROUP) {
+                    context.assign(assignment, newAssignmentGroup);
+                    return;
+                }
+            }
+        }
+        context.addUnsolvedAssignment(assignment);
+    }
+
+    /**
+     * Repairs an assignment that collides with every group with an ejection chain. If the assignment can not
+     * be made all the changes are undone.
+     *
+     * @param context    context of the evaluation.
+     * @param assignment assignment that could not be made.
+     * @param depth      maximum number of levels of ejected assignments.
+     * @return true if the assignment was made.
+     */
+    private boolean repairByEjectionChain(EvaluationContext context, int assignment, int depth) {
+        context.setRemainingRepairVisits(repairBudget);
+        boolean repaired = placeByEjectionChain(context, assignment, depth, new int[depth], 0);
+        if (!repaired) {
+            context.undoChanges(0);
+        }
+        context.clearChanges();
+        return repaired;
+    }
+
+    /**
+     * Tries to place an assignment without group in each one of its candidate groups, ejecting the assignments
+     * of the student that collide with the group. The changes of each group that fails are undone.
+     *
+     * @param context     context of the evaluation.
+     * @param assignment  assignment to be placed.
+     * @param depth       remaining levels of ejected assignments, at least one.
+     * @param chain       assignments being placed by the chain, which can not be ejected.
+     * @param chainLength number of assignments in the chain.
+     * @return true if the assignment and all the assignments ejected by it were placed.
+     */
+    private boolean placeByEjectionChain(EvaluationContext context, int assignment, int depth, int[] chain, int chainLength) {
+        chain[chainLength] = assignment;
+        int subjectClass = planification.getAssignmentSubjectClass(assignment);
+        for (int position = planification.getSubjectClassGroupsStart(subjectClass); position < planification.getSubjectClassGroupsEnd(subjectClass); position++) {
+            int group = planification.getSubjectClassGroup(position);
+            if (!planification.isCandidateGroup(assignment, group)) {
+                continue;
+            }
+            if (!context.consumeRepairVisit()) {
+                return false;
+            }
+            int changes = context.getNumberOfChanges();
+            if (placeInGroup(context, assignment, group, depth, chain, chainLength + 1)) {
+                return true;
+            }
+            context.undoChanges(changes);
+        }
+        return false;
+    }
+
+    /**
+     * Places an assignment in a group, ejecting the assignments of the student that collide with it. The
+     * ejected assignments are placed in their best group or, when there is none and depth remains, with
+     * another ejection chain. Neither the fixed assignments nor the ones in the chain are ejected.
+     *
+     * @param context     context of the evaluation.
+     * @param assignment  assignment to be placed.
+     * @param group       group for the assignment.
+     * @param depth       remaining levels of ejected assignments, at least one.
+     * @param chain       assignments being placed by the chain, including this one.
+     * @param chainLength number of assignments in the chain.
+     * @return true if the assignment and all the ejected ones were placed, the changes are not undone otherwise.
+     */
+    private boolean placeInGroup(EvaluationContext context, int assignment, int group, int depth, int[] chain, int chainLength) {
+        int student = planification.getAssignmentStudent(assignment);
+        int firstEjected = context.getNumberOfChanges();
+        for (int studentAssignment = planification.getStudentAssignmentsStart(student); studentAssignment < planification.getStudentAssignmentsEnd(student); studentAssignment++) {
+            int assignedGroup = context.getGroup(studentAssignment);
+            if (studentAssignment != assignment && assignedGroup != EvaluationContext.NO_GROUP && planification.collide(group, assignedGroup)) {
+                if (planification.getFixedGroup(studentAssignment) != EvaluationContext.NO_GROUP || isInChain(studentAssignment, chain, chainLength)) {
+                    return false;
+                }
+                context.reassign(studentAssignment, EvaluationContext.NO_GROUP);
+            }
+        }
+        int lastEjected = context.getNumberOfChanges();
+        context.reassign(assignment, group);
+        for (int change = firstEjected; change < lastEjected; change++) {
+            int ejected = context.getChangedAssignment(change);
+            int newGroup = getBestGroup(context, ejected, false);
+            if (newGroup != EvaluationContext.NO_GROUP) {
+                context.reassign(ejected, newGroup);
+            } else if (depth <= 1 || !placeByEjectionChain(context, ejected, depth - 1, chain, chainLength)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isInChain(int assignment, int[] chain, int chainLength) {
+        for (int i = 0; i < chainLength; i++) {
+            if (chain[i] == assignment) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the group with the lowest number of students that does not collide with any
+     * of the current assignments of the student. The groups of the subject class are visited from the least
+     * loaded bucket upward, stopping at the first bucket that contains a group without collisions. When several
+     * groups of that bucket have no collisions, the first one in the list of groups of the subject class is chosen.
+     * The groups that collide with a fixed assignment of the student are skipped without checking them.
+     * <p>
+     * The collisions are only needed when no group can be assigned, in which case every group collides
+     * and the collisions are stored in the order of the list of groups of the subject class.
+     *
+     * @param context           context of the evaluation.
+     * @param assignment        assignment for which we want to find the best group.
+     * @param collectCollisions true if the assignments that collide with the candidate groups must be stored in the context.
+     * @return the best group for the assignment or {@link EvaluationContext#NO_GROUP} if there is not any.
+     */
+    private int getBestGroup(EvaluationContext context, int assignment, boolean collectCollisions) {
+        int student = planification.getAssignmentStudent(assignment);
+        int subjectClass = planification.getAssignmentSubjectClass(assignment);
+        int firstBucket = planification.getNumberOfCandidateGroups(assignment) == 0 ? EvaluationContext.NO_BUCKET : context.getLeastLoadedBucket(subjectClass);
+        for (int bucket = firstBucket; bucket != EvaluationContext.NO_BUCKET; bucket = context.getNextNonEmptyBucket(bucket)) {
+            int selectedGroup = EvaluationContext.NO_GROUP;
+            for (int group = context.getFirstGroupInBucket(bucket);
+                 group != EvaluationContext.NO_GROUP;
+                 group = context.getNextGroupInBucket(group)) {
+                if ((selectedGroup == EvaluationContext.NO_GROUP || planification.getGroupPosition(group) < planification.getGroupPosition(selectedGroup))
+                        && planification.isCandidateGroup(assignment, group)) {
+                    int assignmentCollided = getAssignationWithCollision(context, student, group);
+                    if (assignmentCollided == EvaluationContext.NO_GROUP) {
+                        selectedGroup = group;
+                    } else if (collectCollisions) {
+                        context.setCandidateCollision(group, assignmentCollided);
+                    }
+                }
+            }
+            if (selectedGroup != EvaluationContext.NO_GROUP) {
+                return selectedGroup;
+            }
+        }
+        if (collectCollisions) {
+            for (int position = planification.getSubjectClassGroupsStart(subjectClass); position < planification.getSubjectClassGroupsEnd(subjectClass); position++) {
+                int group = planification.getSubjectClassGroup(position);
+                if (planification.isCandidateGroup(assignment, group)) {
+                    context.addCollision(context.getCandidateCollision(group));
+                } else {
+                    context.addCollision(getAssignationWithCollision(context, student, group));
+                }
+            }
+        }
+        return EvaluationContext.NO_GROUP;
+    }
+
+    /**
+     * Returns the assignment of a student that collides with a group. The week occupancy mask of the student
+     * discards most of the groups without looking at his assignments; only when the group shares some slot with
+     * the student timetable (or has mandatory collisions) the assignments are checked against the collision matrix,
+     * which also takes into account the collision exceptions.
+     *
+     * @param context context of the evaluation.
+     * @param student student whose assignments are checked.
+     * @param group   group that is going to be assigned.
+     * @return assignment of the student that collides with the group, {@link EvaluationContext#NO_GROUP} if there is not any.
+     */
+    private int getAssignationWithCollision(EvaluationContext context, int student, int group) {
+        if (!planification.needsExactCollisionCheck(group) && !context.overlapsStudentTimetable(student, group)) {
+            return EvaluationContext.NO_GROUP;
+        }
+        for (int studentAssignment = planification.getStudentAssignmentsStart(student); studentAssignment < planification.getStudentAssignmentsEnd(student); studentAssignment++) {
+            int assignedGroup = context.getGroup(studentAssignment);
+            if (assignedGroup != EvaluationContext.NO_GROUP && planification.collide(group, assignedGroup)) {
+                return studentAssignment;
+            }
+        }
+        return EvaluationContext.NO_GROUP;
+    }
+
+    /**
+     * Calculate the statistics about the quality of the evaluated individual. They are the same ones
+     * calculated by {@link GreedyAlgorithm}. The balance of the groups is read from the running statistics
+     * kept by the context, so only the subject classes are visited and not their groups. The timetables of
+     * the students are only generated when their statistics are required.
+     *
+     * @param context    context of the evaluation.
+     * @param individual individual in which the statistics are stored.
+     * @param statistics statistics that must be calculated.
+     */
+    private void calculateStatistics(EvaluationContext context, Individual individual, Set<EvaluationStatistic> statistics) {
+        int[] subjectClasses = planification.getStatisticsSubjectClasses();
+        if (statistics.contains(EvaluationStatistic.GROUP_DIFFERENCES)) {
+            long totalDifferenceBetweeenGroups = context.getTotalDifferenceBetweenGroups();
+            int totalNumberOfSubjectClasses = subjectClasses.length;
+
+            // Sum of the squared deviations from the (truncated) mean difference, expanded so it only needs the running sums
+            long meanDifference = totalDifferenceBetweeenGroups / totalNumberOfSubjectClasses;
+            long sum = context.getTotalSquaredDifferenceBetweenGroups() - 2 * meanDifference * totalDifferenceBetweeenGroups
+                    + totalNumberOfSubjectClasses * meanDifference * meanDifference;
+
+            individual.setTotalDifferenceBetweenGroups((int) totalDifferenceBetweeenGroups);
+            individual.setVarianceBetweenDifferences((double) sum / (totalNumberOfSubjectClasses - 1));
+        }
+
+        if (statistics.contains(EvaluationStatistic.GROUP_VARIANCES)) {
+            double maximumDifference = 0;
+            double maxVariance = 0;
+            double totalVariance = 0;
+            for (int subjectClass : subjectClasses) {
+                OccupancyStatistics subjectClassStatistics = context.getSubjectClassStatistics(subjectClass);
+                if (subjectClassStatistics.getMaximumDifference() > maximumDifference) {
+                    maximumDifference = subjectClassStatistics.getMaximumDifference();
+                }
+                double groupsVariance = subjectClassStatistics.getVariance();
+                if (groupsVariance > maxVariance) {
+                    maxVariance = groupsVariance;
+                }
+                totalVariance += groupsVariance;
+            }
+            individual.setTotalVariance(totalVariance);
+            individual.setMaxVariance(maxVariance);
+            individual.setMaxDifferenceBetweenGroups(maximumDifference);
+        }
+
+        if (statistics.contains(EvaluationStatistic.STUDENT_TIMETABLES)) {
+            int totalFreeSlots = 0;
+            int totalDaysWithLoNumOfClasses = 0;
+            long[] dayMasks = new long[Group.DAYS_PER_WEEK];
+            for (int student = 0; student < planification.getNumberOfStudents(); student++) {
+                fillDayMasks(context, student, dayMasks);
+                for (long dayMask : dayMasks) {
+                    totalFreeSlots += Student.countFreeSlots(dayMask);
+                    if (Student.hasLowNumOfClasses(dayMask)) {
+                        totalDaysWithLoNumOfClasses++;
+                    }
+                }
+            }
+            individual.setTotalDaysWithLowNumOfClasses(totalDaysWithLoNumOfClasses);
+            individual.setTotalNumberOfFreeSlots(totalFreeSlots);
+        }
+    }
+
+    /**
+     * Fills the masks of the half an hour slots in which the student has lessons in each day of the week.
+     *
+     * @param context  context of the evaluation.
+     * @param student  student whose timetable is generated.
+     * @param dayMasks one mask for each day of the week, they are cleared before filling them.
+     */
+    private void fillDayMasks(EvaluationContext context, int student, long[] dayMasks) {
+        Arrays.fill(dayMasks, 0L);
+        for (int assignment = planification.getStudentAssignmentsStart(student); assignment < planification.getStudentAssignmentsEnd(student); assignment++) {
+            int group = context.getGroup(assignment);
+            if (group != EvaluationContext.NO_GROUP) {
+                planification.addDaySlots(group, dayMasks);
+            }
+        }
+    }
+}
@@ -76,6 +76,33 @@ public class Class {
         return (((endDate.dayOfTheWeek - 1) * 24 * 60) + endDate.hour * 60 + endDate.minutes) - (((startDate.dayOfTheWeek - 1) * 24 * 60) + startDate.hour * 60 + startDate.minutes);
     }
 
+    /**
+     * Returns the day of the week in which the class takes place.
+     *
+     * @return day of the week of the class, being 0 Monday.
+     */
+    public int getDayOfTheWeek() {
+        return startDate.dayOfTheWeek;
+    }
+
+    /**
+     * Returns the half an hour slot of the day in which the class starts.
+     *
+     * @return index of the first half an hour slot occupied by the class.
+     */
+    public int getStartSlot() {
+        return startDate.hour * 2 + (startDate.minutes / 30);
+    }
+
+    /**
+     * Returns the half an hour slot of the day in which the class has already finished.
+     *
+     * @return index of the first half an hour slot after the end of the class.
+     */
+    public int getEndSlot() {
+        return getStartSlot() + (getClassDurationInMinutes() / 30);
+    }
+
     /**
      * Hash for a class based in its groupID and the start and end dates.
      *
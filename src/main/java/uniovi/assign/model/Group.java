@@ -5,15 +5,23 @@ import java.util.List;
 
 public class Group {
 
+    public static final int SLOTS_PER_DAY = 48;
+    public static final int DAYS_PER_WEEK = 7;
+    public static final int TIME_SLOT_MASK_LENGTH = (SLOTS_PER_DAY * DAYS_PER_WEEK + 63) / 64;
+
     private String groupId;
     private int maxCapacity = 15;
     private List<uniovi.assign.model.Class> classes = new ArrayList<>();
     private List<Student> students = new ArrayList<>();
     private SubjectClass subjectClass;
+    private long[] timeSlotMask;
+    private long[] daySlotMasks;
 
     public Group(String groupId, List<uniovi.assign.model.Class> classes) {
         this.groupId = groupId;
         this.classes = classes;
+        this.timeSlotMask = calculateTimeSlotMask(classes);
+        this.daySlotMasks = calculateDaySlotMasks(classes);
     }
 
     public List<Student> getStudents() {
@@ -21,7 +29,9 @@ public class Group {
     }
 
     public void setStudents(List<Student> students) {
+        int previousNumberOfStudents = this.students.size();
         this.students = students;
+        notifyOccupancyChange(previousNumberOfStudents);
     }
 
     public SubjectClass getSubjectClass() {
@@ -68,14 +78,31 @@ public class Group {
 
     public void addStudent(Student newStudent) {
         this.students.add(newStudent);
+        notifyOccupancyChange(students.size() - 1);
     }
 
     public void removeStudent(Student student) {
-        this.students.remove(student);
+        if (this.students.remove(student)) {
+            notifyOccupancyChange(students.size() + 1);
+        }
     }
 
     public void resetStudents() {
+        int previousNumberOfStudents = this.students.size();
         this.students = new ArrayList<>();
+        notifyOccupancyChange(previousNumberOfStudents);
+    }
+
+    /**
+     * Informs the subject class of the group that its number of students has changed, so it can keep
+     * its statistics updated.
+     *
+     * @param previousNumberOfStudents number of students that the group had before the change.
+     */
+    private void notifyOccupancyChange(int previousNumberOfStudents) {
+        if (subjectClass != null) {
+            subjectClass.updateGroupOccupancy(previousNumberOfStudents, students.size());
+        }
     }
 
 
@@ -85,5 +112,78 @@ public class Group {
 
     public void setClasses(List<uniovi.assign.model.Class> classes) {
         this.classes = classes;
+        this.timeSlotMask = calculateTimeSlotMask(classes);
+        this.daySlotMasks = calculateDaySlotMasks(classes);
+    }
+
+    /**
+     * Returns the half an hour slots of the week in which the group has classes, packed as a bitmask.
+     * Bit (day * 48 + slot) is set when the group has class in that slot, and every slot partially
+     * covered by a class is included, so two groups whose classes overlap always share at least one bit.
+     * Classes outside the week (like sundays) are not represented.
+     *
+     * @return bitmask of the slots of the week occupied by the group.
+     */
+    public long[] getTimeSlotMask() {
+        return timeSlotMask;
+    }
+
+    /**
+     * Returns the half an hour slots occupied by the classes of the group in each day of the week. Element d
+     * of the array has bit s set when the group has class in slot s of day d, taking the slots as they are
+     * counted in the timetable of the students: from the start slot of each class and as many slots as
+     * complete half hours it lasts.
+     *
+     * @return array with one 48 bits mask for each day of the week.
+     */
+    public long[] getDaySlotMasks() {
+        return daySlotMasks;
+    }
+
+    /**
+     * Calculates the masks of the half an hour slots occupied by a list of classes in each day of the week.
+     *
+     * @param classes classes of the group.
+     * @return array with one 48 bits mask for each day of the week.
+     */
+    private static long[] calculateDaySlotMasks(List<uniovi.assign.model.Class> classes) {
+        long[] masks = new long[DAYS_PER_WEEK];
+        for (uniovi.assign.model.Class lecture : classes) {
+            if (lecture.getStartDate() == null || lecture.getEndDate() == null) {
+                continue;
+            }
+            int day = lecture.getDayOfTheWeek();
+            int startSlot = Math.max(0, lecture.getStartSlot());
+            int endSlot = Math.min(SLOTS_PER_DAY, lecture.getEndSlot());
+            if (day >= 0 && day < DAYS_PER_WEEK && startSlot < endSlot) {
+                masks[day] |= (-1L >>> (64 - (endSlot - startSlot))) << startSlot;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Calculates the bitmask of the half an hour slots of the week occupied by a list of classes.
+     *
+     * @param classes classes of the group.
+     * @return bitmask of the slots of the week occupied by the classes.
+     */
+    private static long[] calculateTimeSlotMask(List<uniovi.assign.model.Class> classes) {
+        long[] mask = new long[TIME_SLOT_MASK_LENGTH];
+        for (uniovi.assign.model.Class lecture : classes) {
+            SimplifiedDate start = lecture.getStartDate();
+            SimplifiedDate end = lecture.getEndDate();
+            if (start == null || end == null) {
+                continue;
+            }
+            int startMinute = (start.dayOfTheWeek * 24 + start.hour) * 60 + start.minutes;
+            int endMinute = (end.dayOfTheWeek * 24 + end.hour) * 60 + end.minutes;
+            int firstSlot = Math.max(0, startMinute / 30);
+            int lastSlot = Math.min(SLOTS_PER_DAY * DAYS_PER_WEEK, (endMinute + 29) / 30);
+            for (int slot = firstSlot; slot < lastSlot; slot++) {
+                mask[slot >>> 6] |= 1L << slot;
+            }
+        }
+        return mask;
     }
 }
@@ -0,0 +1,139 @@
+package uniovi.assign.model;
+
+import java.util.Arrays;
+
+/**
+ * Running statistics about the number of students of a set of groups. They are updated every time the
+ * number of students of one of the groups changes, so the total, the variance and the difference between the
+ * group with most students and the one with less can be obtained without iterating the groups.
+ * <p>
+ * The minimum and the maximum are tracked with a histogram of the number of groups that have each number of
+ * students, so adding or removing one student updates them in constant time.
+ */
+public class OccupancyStatistics {
+
+    private int numberOfGroups;
+    private long sum;
+    private long sumOfSquares;
+    private int min;
+    private int max;
+    private int[] groupsWithOccupancy;
+
+    /**
+     * Default constructor for statistics of an empty set of groups.
+     */
+    public OccupancyStatistics() {
+        this.groupsWithOccupancy = new int[16];
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param other statistics to be copied.
+     */
+    public OccupancyStatistics(OccupancyStatistics other) {
+        this.numberOfGroups = other.numberOfGroups;
+        this.sum = other.sum;
+        this.sumOfSquares = other.sumOfSquares;
+        this.min = other.min;
+        this.max = other.max;
+        this.groupsWithOccupancy = other.groupsWithOccupancy.clone();
+    }
+
+    /**
+     * Adds a new group to the statistics.
+     *
+     * @param numberOfStudents current number of students of the group.
+     */
+    public void addGroup(int numberOfStudents) {
+        ensureCapacity(numberOfStudents);
+        if (numberOfGroups == 0 || numberOfStudents < min) {
+            min = numberOfStudents;
+        }
+        if (numberOfGroups == 0 || numberOfStudents > max) {
+            max = numberOfStudents;
+        }
+        numberOfGroups++;
+        groupsWithOccupancy[numberOfStudents]++;
+        sum += numberOfStudents;
+        sumOfSquares += (long) numberOfStudents * numberOfStudents;
+    }
+
+    /**
+     * Updates the statistics when the number of students of one of the groups changes.
+     *
+     * @param oldNumberOfStudents number of students that the group had.
+     * @param newNumberOfStudents number of students that the group has now.
+     */
+    public void update(int oldNumberOfStudents, int newNumberOfStudents) {
+        if (oldNumberOfStudents == newNumberOfStudents) {
+            return;
+        }
+        ensureCapacity(newNumberOfStudents);
+        groupsWithOccupancy[oldNumberOfStudents]--;
+        groupsWithOccupancy[newNumberOfStudents]++;
+        sum += newNumberOfStudents - oldNumberOfStudents;
+        sumOfSquares += (long) newNumberOfStudents * newNumberOfStudents - (long) oldNumberOfStudents * oldNumberOfStudents;
+
+        if (newNumberOfStudents < min) {
+            min = newNumberOfStudents;
+        }
+        if (newNumberOfStudents > max) {
+            max = newNumberOfStudents;
+        }
+        while (groupsWithOccupancy[min] == 0) {
+            min++;
+        }
+        while (groupsWithOccupancy[max] == 0) {
+            max--;
+        }
+    }
+
+    private void ensureCapacity(int numberOfStudents) {
+        if (numberOfStudents >= groupsWithOccupancy.length) {
+            groupsWithOccupancy = Arrays.copyOf(groupsWithOccupancy, Math.max(numberOfStudents + 1, groupsWithOccupancy.length * 2));
+        }
+    }
+
+    public int getNumberOfGroups() {
+        return numberOfGroups;
+    }
+
+    /**
+     * Returns the total number of students in the groups.
+     *
+     * @return total number of students in the groups.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the difference between the group that has the lowest number of students and the one that has the highest.
+     *
+     * @return difference between the group that has the lowest number of students and the one that has the highest.
+     */
+    public int getMaximumDifference() {
+        return max - min;
+    }
+
+    /**
+     * Returns the variance between the number of students in the groups.
+     *
+     * @return variance between the number of students in the groups.
+     */
+    public double getVariance() {
+        if (numberOfGroups == 0) {
+            return Double.NaN;
+        }
+        return (double) (numberOfGroups * sumOfSquares - sum * sum) / ((double) numberOfGroups * numberOfGroups);
+    }
+}
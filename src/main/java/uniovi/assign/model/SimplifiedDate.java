@@ -23,6 +23,18 @@ public class SimplifiedDate {
         this.minutes = minutes;
     }
 
+    public int getDayOfTheWeek() {
+        return dayOfTheWeek;
+    }
+
+    public int getHour() {
+        return hour;
+    }
+
+    public int getMinutes() {
+        return minutes;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == null) return false;
@@ -150,59 +150,49 @@ public class Student {
      * with two hours of lessons or less.
      */
     public int[] calculateNumberOfFreeHoursAndDaysWithLowNumOfClasses() {
-        int[] results = new int[2];
-        boolean[][] timeTable = generateBooleanWeekTimetable();
-        int totalFreeSlots = 0;
-        int daysWithLowClasses = 0;
-        for (int day = 0; day < 7; day++) {
-            int accumulator = 0;
-            int totalClassesInDay = 0;
-            boolean hasClass = false;
-            for (int slot = 0; slot < 48; slot++) {
-                if (timeTable[slot][day] && hasClass) {
-                    totalFreeSlots += accumulator;
-                    totalClassesInDay++;
-                    accumulator = 0;
-                } else if (!timeTable[slot][day] && hasClass) {
-                    accumulator++;
-                } else if (timeTable[slot][day]) {
-                    hasClass = true;
-                    totalClassesInDay++;
+        long[] dayMasks = new long[Group.DAYS_PER_WEEK];
+        for (Assignment assignment : assignments) {
+            if (assignment.getGroup() != null) {
+                long[] groupMasks = assignment.getGroup().getDaySlotMasks();
+                for (int day = 0; day < Group.DAYS_PER_WEEK; day++) {
+                    dayMasks[day] |= groupMasks[day];
                 }
             }
-            if (totalClassesInDay <= 4 && totalClassesInDay != 0) {
-                daysWithLowClasses++;
+        }
+        int[] results = new int[2];
+        for (long dayMask : dayMasks) {
+            results[0] += countFreeSlots(dayMask);
+            if (hasLowNumOfClasses(dayMask)) {
+                results[1]++;
             }
         }
-        results[0] = totalFreeSlots;
-        results[1] = daysWithLowClasses;
         return results;
     }
 
-
     /**
-     * Generate a 48x7 matrix with boolean values in which they are represented the 48 slots of half an hour that a day has
-     * and the s7 days of the week. It generates a matrix indicating in which intervals the student has lessons.
+     * Counts the half an hour free slots between the first and the last lesson of a day.
      *
-     * @return a 48x7 matrix filled with boolean values in which true means that the student has class in that timeslot and false
-     * meand that he has not class in that timeslot.
+     * @param dayMask mask of the slots of the day in which the student has lessons.
+     * @return number of free slots between lessons.
      */
-    private boolean[][] generateBooleanWeekTimetable() {
-        boolean[][] timetable = new boolean[48][7];
-        for (Assignment assignment : assignments) {
-            if (assignment.getGroup() != null) {
-                for (Class cl : assignment.getGroup().getClasses()) {
-                    SimplifiedDate startDate = cl.getStartDate();
-                    int classDuration = cl.getClassDurationInMinutes();
-                    int startPoint = startDate.hour * 2 + (startDate.minutes / 30);
-                    int endPoint = startPoint + (classDuration / 30);
-                    for (int i = startPoint; i < endPoint; i++) {
-                        timetable[i][startDate.dayOfTheWeek] = true;
-                    }
-                }
-            }
+    public static int countFreeSlots(long dayMask) {
+        if (dayMask == 0) {
+            return 0;
         }
-        return timetable;
+        int firstSlot = Long.numberOfTrailingZeros(dayMask);
+        int lastSlot = 63 - Long.numberOfLeadingZeros(dayMask);
+        return lastSlot - firstSlot + 1 - Long.bitCount(dayMask);
+    }
+
+    /**
+     * Returns whether a day has lessons but only two hours of them or less.
+     *
+     * @param dayMask mask of the slots of the day in which the student has lessons.
+     * @return true if the day has between one and four half an hour slots of lessons.
+     */
+    public static boolean hasLowNumOfClasses(long dayMask) {
+        int slotsWithClass = Long.bitCount(dayMask);
+        return slotsWithClass <= 4 && slotsWithClass != 0;
     }
 
     /**
@@ -228,4 +218,14 @@ public class Student {
         Student otherStudent = (Student) other;
         return otherStudent.id.equals(this.id);
     }
+
+    /**
+     * Overridden hashCode method consistent with equals, based on the id of the student
+     *
+     * @return hash of the id of the student.
+     */
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
 }
@@ -1,17 +1,20 @@
 package uniovi.assign.model;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 /**
  * Model class that represent one of the classes that are taught in a subject (theoretical, laboratory or seminar classes)
+ * <p>
+ * The subject class keeps running statistics about the number of students of its groups, which are updated by the
+ * groups every time a student is added or removed.
  */
 public class SubjectClass {
 
     private Subject subject;
     private String subjectName;
     private List<Group> groups;
+    private OccupancyStatistics occupancyStatistics = new OccupancyStatistics();
 
     /**
      * Default constructor for a subject class.
@@ -34,6 +37,17 @@ public class SubjectClass {
 
     public void addGroup(Group group) {
         this.groups.add(group);
+        this.occupancyStatistics.addGroup(group.getNumberOfStudents());
+    }
+
+    /**
+     * Updates the statistics of the subject class when the number of students of one of its groups changes.
+     *
+     * @param oldNumberOfStudents number of students that the group had.
+     * @param newNumberOfStudents number of students that the group has now.
+     */
+    void updateGroupOccupancy(int oldNumberOfStudents, int newNumberOfStudents) {
+        occupancyStatistics.update(oldNumberOfStudents, newNumberOfStudents);
     }
 
     /**
@@ -42,9 +56,7 @@ public class SubjectClass {
      * @return * Calculates the difference between the group that has the lowest number of students and the one that has the highest.
      */
     public int getMaximumDiferenceBetweenGroups() {
-        int min = groups.parallelStream().min(Comparator.comparingInt(group -> group.getNumberOfStudents())).get().getNumberOfStudents();
-        int max = groups.parallelStream().max(Comparator.comparingInt(group -> group.getNumberOfStudents())).get().getNumberOfStudents();
-        return max - min;
+        return occupancyStatistics.getMaximumDifference();
     }
 
     public Subject getSubject() {
@@ -61,7 +73,7 @@ public class SubjectClass {
      * @return total number of students in the subjectclass.
      */
     public int getTotalNumberOfStudents() {
-        return groups.parallelStream().mapToInt(group -> group.getNumberOfStudents()).sum();
+        return (int) occupancyStatistics.getSum();
     }
 
     /**
@@ -70,19 +82,7 @@ public class SubjectClass {
      * @return variance between the number of students in the groups of the subjectclass.
      */
     public double getGroupsVariance() {
-        double totalNumberOfStudents = 0;
-        for (Group group : groups) {
-            totalNumberOfStudents += group.getNumberOfStudents();
-        }
-        double meanNumberOfStudents = totalNumberOfStudents / groups.size();
-
-        double sum = 0;
-        for (Group group : groups) {
-            sum += Math.pow((group.getNumberOfStudents() - meanNumberOfStudents), 2);
-        }
-
-
-        return sum / groups.size();
+        return occupancyStatistics.getVariance();
     }
 
     @Override
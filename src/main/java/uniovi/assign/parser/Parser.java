@@ -1,6 +1,7 @@
 package uniovi.assign.parser;
 
 import uniovi.assign.genetic.GeneticParameters;
+import uniovi.assign.model.Assignment;
 import uniovi.assign.model.Group;
 import uniovi.assign.model.Planification;
 import uniovi.assign.model.SubjectClass;
@@ -64,6 +65,16 @@ public interface Parser {
      */
     Map<Group, List<Group>> parseAssigmentPreferences(String pathToFile, Map<String, Group> groupMap);
 
+    /**
+     * Method in charge of parsing the assignments of a previous execution from its Excel results file.
+     *
+     * @param pathToFile    path to the Excel file generated by a previous execution.
+     * @param planification planification whose assignments are searched in the file.
+     * @param semester      semester of the planification.
+     * @return map containing the group of each assignment of the planification that was assigned in the file.
+     */
+    Map<Assignment, Group> parsePreviousAssignments(String pathToFile, Planification planification, String semester);
+
     /**
      * Method in charge of parsing the genetic algorithm params properties files.
      *
@@ -5,10 +5,15 @@ import net.sf.jsefa.Deserializer;
 import net.sf.jsefa.common.lowlevel.filter.HeaderAndFooterFilter;
 import net.sf.jsefa.csv.CsvIOFactory;
 import net.sf.jsefa.csv.config.CsvConfiguration;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import uniovi.assign.genetic.GeneticParameters;
 import uniovi.assign.model.Class;
 import uniovi.assign.model.*;
+import uniovi.assign.reports.ExcelReporter;
 
 import java.io.*;
 import java.util.*;
@@ -303,6 +308,55 @@ public class ParserImpl implements Parser {
 
     }
 
+    /**
+     * Method in charge of parsing the assignments of a previous execution from its Excel results file.
+     * The students are searched by their id in the assignments sheet, and the group of each assignment is
+     * the group of its subject class whose id ends with the value of its column. The unsolved assignments
+     * and the groups that no longer exist are ignored.
+     * <p>
+     * If the file is not found or the format is incorrect, an error will be shown and the execution stops.
+     *
+     * @param pathToFile    path to the Excel file generated by a previous execution.
+     * @param planification planification whose assignments are searched in the file.
+     * @param semester      semester of the planification.
+     * @return map containing the group of each assignment of the planification that was assigned in the file.
+     */
+    @Override
+    public Map<Assignment, Group> parsePreviousAssignments(String pathToFile, Planification planification, String semester) {
+        Map<Assignment, Group> previousAssignments = new HashMap<>();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(pathToFile))) {
+            Sheet sheet = workbook.getSheet("Assignments");
+            DataFormatter formatter = new DataFormatter();
+            Map<String, Row> rows = new HashMap<>();
+            for (Row row : sheet) {
+                rows.put(formatter.formatCellValue(row.getCell(0)), row);
+            }
+            List<String> subjectOrder = ExcelReporter.getSubjectOrder(semester);
+            for (Student student : planification.getStudents()) {
+                Row row = rows.get(student.getId());
+                if (row == null) {
+                    continue;
+                }
+                for (Assignment assignment : student.getAssignments()) {
+                    String groupName = formatter.formatCellValue(row.getCell(ExcelReporter.getAssignmentColumn(assignment, subjectOrder)));
+                    for (Group group : assignment.getSubjectClass().getGroups()) {
+                        if (group.getGroupId().endsWith("." + groupName)) {
+                            previousAssignments.put(assignment, group);
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (FileNotFoundException e) {
+            System.err.println("ERROR: Previous results file not found in path " + pathToFile);
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("ERROR: Previous results file in path " + pathToFile + " has an incorrect format.");
+            System.exit(1);
+        }
+        return previousAssignments;
+    }
+
     /**
      * Method in charge of parsing the genetic algorithm params properties files.
      * <p>
@@ -355,6 +409,128 @@ public class ParserImpl implements Parser {
                 System.out.println("WARNING: semester not provided. Default value " + parameters.getSemester() + " will be used");
             }
 
+            if (prop.getProperty("workers") != null) {
+                parameters.setNumberOfWorkers(Integer.parseInt(prop.getProperty("workers")));
+                System.out.println("Number of workers:" + parameters.getNumberOfWorkers());
+            } else {
+                System.out.println("WARNING: workers not provided. Default value " + parameters.getNumberOfWorkers() + " will be used");
+            }
+
+            if (prop.getProperty("sparseCollisionMatrix") != null) {
+                parameters.setSparseCollisionMatrix(Boolean.parseBoolean(prop.getProperty("sparseCollisionMatrix")));
+                System.out.println("Sparse collision matrix:" + parameters.isSparseCollisionMatrix());
+            }
+
+            if (prop.getProperty("evaluationCheckpoints") != null) {
+                parameters.setEvaluationCheckpoints(Integer.parseInt(prop.getProperty("evaluationCheckpoints")));
+                System.out.println("Evaluation checkpoints:" + parameters.getEvaluationCheckpoints());
+            }
+
+            if (prop.getProperty("evaluationCacheSize") != null) {
+                parameters.setEvaluationCacheSize(Integer.parseInt(prop.getProperty("evaluationCacheSize")));
+                System.out.println("Evaluation cache size:" + parameters.getEvaluationCacheSize());
+            }
+
+            if (prop.getProperty("repairDepth") != null) {
+                parameters.setRepairDepth(Integer.parseInt(prop.getProperty("repairDepth")));
+                System.out.println("Repair depth:" + parameters.getRepairDepth());
+            }
+
+            if (prop.getProperty("repairBudget") != null) {
+                parameters.setRepairBudget(Integer.parseInt(prop.getProperty("repairBudget")));
+                System.out.println("Repair budget:" + parameters.getRepairBudget());
+            }
+
+            if (prop.getProperty("conflictHeatmap") != null) {
+                parameters.setConflictHeatmap(Boolean.parseBoolean(prop.getProperty("conflictHeatmap")));
+                System.out.println("Conflict heatmap:" + parameters.isConflictHeatmap());
+            }
+
+            if (prop.getProperty("islands") != null) {
+                parameters.setNumberOfIslands(Integer.parseInt(prop.getProperty("islands")));
+                System.out.println("Number of islands:" + parameters.getNumberOfIslands());
+            }
+
+            if (prop.getProperty("migrationInterval") != null) {
+                parameters.setMigrationInterval(Integer.parseInt(prop.getProperty("migrationInterval")));
+                System.out.println("Migration interval:" + parameters.getMigrationInterval());
+            }
+
+            if (prop.getProperty("migrants") != null) {
+                parameters.setNumberOfMigrants(Integer.parseInt(prop.getProperty("migrants")));
+                System.out.println("Number of migrants:" + parameters.getNumberOfMigrants());
+            }
+
+            if (prop.getProperty("migrationTopology") != null) {
+                parameters.setMigrationTopology(prop.getProperty("migrationTopology"));
+                System.out.println("Migration topology:" + parameters.getMigrationTopology());
+            }
+
+            if (prop.getProperty("coordinatorPort") != null) {
+                parameters.setCoordinatorPort(Integer.parseInt(prop.getProperty("coordinatorPort")));
+                System.out.println("Coordinator port:" + parameters.getCoordinatorPort());
+            }
+
+            if (prop.getProperty("coordinatorAddress") != null) {
+                parameters.setCoordinatorAddress(prop.getProperty("coordinatorAddress"));
+                System.out.println("Coordinator address:" + parameters.getCoordinatorAddress());
+            }
+
+            if (prop.getProperty("steadyState") != null) {
+                parameters.setSteadyState(Boolean.parseBoolean(prop.getProperty("steadyState")));
+                System.out.println("Steady state:" + parameters.isSteadyState());
+            }
+
+            if (prop.getProperty("tournamentSize") != null) {
+                parameters.setTournamentSize(Integer.parseInt(prop.getProperty("tournamentSize")));
+                System.out.println("Tournament size:" + parameters.getTournamentSize());
+            }
+
+            if (prop.getProperty("reportInterval") != null) {
+                parameters.setReportInterval(Integer.parseInt(prop.getProperty("reportInterval")));
+                System.out.println("Report interval:" + parameters.getReportInterval());
+            }
+
+            if (prop.getProperty("stagnationGenerations") != null) {
+                parameters.setStagnationGenerations(Integer.parseInt(prop.getProperty("stagnationGenerations")));
+                System.out.println("Stagnation generations:" + parameters.getStagnationGenerations());
+            }
+
+            if (prop.getProperty("timeLimit") != null) {
+                parameters.setTimeLimit(Long.parseLong(prop.getProperty("timeLimit")));
+                System.out.println("Time limit:" + parameters.getTimeLimit());
+            }
+
+            if (prop.getProperty("maxEvaluations") != null) {
+                parameters.setMaxEvaluations(Long.parseLong(prop.getProperty("maxEvaluations")));
+                System.out.println("Max evaluations:" + parameters.getMaxEvaluations());
+            }
+
+            if (prop.getProperty("targetFitness") != null) {
+                parameters.setTargetFitness(Double.parseDouble(prop.getProperty("targetFitness")));
+                System.out.println("Target fitness:" + parameters.getTargetFitness());
+            }
+
+            if (prop.getProperty("checkpointInterval") != null) {
+                parameters.setCheckpointInterval(Integer.parseInt(prop.getProperty("checkpointInterval")));
+                System.out.println("Checkpoint interval:" + parameters.getCheckpointInterval());
+            }
+
+            if (prop.getProperty("checkpointFile") != null) {
+                parameters.setCheckpointFile(prop.getProperty("checkpointFile"));
+                System.out.println("Checkpoint file:" + parameters.getCheckpointFile());
+            }
+
+            if (prop.getProperty("warmStart") != null) {
+                parameters.setWarmStart(prop.getProperty("warmStart"));
+                System.out.println("Warm start:" + parameters.getWarmStart());
+            }
+
+            if (prop.getProperty("warmStartRatio") != null) {
+                parameters.setWarmStartRatio(Double.parseDouble(prop.getProperty("warmStartRatio")));
+                System.out.println("Warm start ratio:" + parameters.getWarmStartRatio());
+            }
+
         } catch (FileNotFoundException e) {
             System.err.println("ERROR: Could not find file " + pathToFile + ". Default Genetic Parameter values will be used");
             System.exit(1);
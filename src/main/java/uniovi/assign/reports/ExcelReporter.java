@@ -104,6 +104,42 @@ public class ExcelReporter {
 
     }
 
+    /**
+     * Returns the order of the subjects in the columns of the assignments sheet.
+     *
+     * @param semester semester of the planification.
+     * @return subject ids in the order of the columns.
+     */
+    public static List<String> getSubjectOrder(String semester) {
+        if (semester.equals("S1")) {
+            return SUBJECTS_ORDER_S1;
+        } else {
+            return SUBJECTS_ORDER_S2;
+        }
+    }
+
+    /**
+     * Returns the column of the assignments sheet that contains the group of an assignment. After the columns
+     * of the student there is a block of columns for each type of class, headed by the name of the type and
+     * followed by a column for each subject.
+     *
+     * @param assignment   assignment of a student to a subject class.
+     * @param subjectOrder order of the subjects in the columns.
+     * @return index of the column.
+     */
+    public static int getAssignmentColumn(Assignment assignment, List<String> subjectOrder) {
+        int subjectIndex = subjectOrder.indexOf(assignment.getSubjectClass().getSubject().getSubjectId().replace(".I", ""));
+        int typeOfClassIndex = 0;
+        if (assignment.getSubjectClass().getSubjectName().contains(".T")) {
+            typeOfClassIndex = 0;
+        } else if (assignment.getSubjectClass().getSubjectName().contains(".S")) {
+            typeOfClassIndex = 1;
+        } else if (assignment.getSubjectClass().getSubjectName().contains(".L")) {
+            typeOfClassIndex = 2;
+        }
+        return subjectIndex + (typeOfClassIndex * subjectOrder.size()) + 4 + typeOfClassIndex + 1;
+    }
+
     private void addTableRow(XSSFSheet summarySheet, int rowNum, String... values) {
         Row row = summarySheet.createRow(rowNum);
         for (int i = 0; i < values.length; i++) {
@@ -113,12 +149,7 @@ public class ExcelReporter {
 
     private void generateExcelAssignmentsSheet(GeneticParameters parameters, XSSFWorkbook workbook) {
         XSSFSheet sheet = workbook.createSheet("Assignments");
-        List<String> subjectOrder;
-        if (parameters.getSemester().equals("S1")) {
-            subjectOrder = SUBJECTS_ORDER_S1;
-        } else {
-            subjectOrder = SUBJECTS_ORDER_S2;
-        }
+        List<String> subjectOrder = getSubjectOrder(parameters.getSemester());
 
         CellStyle firstCourse = workbook.createCellStyle();
         firstCourse.setFillBackgroundColor(IndexedColors.ORANGE.getIndex());
@@ -175,16 +206,7 @@ public class ExcelReporter {
             Cell name = row.createCell(3);
             name.setCellValue(student.getName());
             for (Assignment assignment : student.getAssignments()) {
-                int subjectIndex = subjectOrder.indexOf(assignment.getSubjectClass().getSubject().getSubjectId().replace(".I", ""));
-                int typeOfClassIndex = 0;
-                if (assignment.getSubjectClass().getSubjectName().contains(".T")) {
-                    typeOfClassIndex = 0;
-                } else if (assignment.getSubjectClass().getSubjectName().contains(".S")) {
-                    typeOfClassIndex = 1;
-                } else if (assignment.getSubjectClass().getSubjectName().contains(".L")) {
-                    typeOfClassIndex = 2;
-                }
-                Cell assignmentCell = row.createCell(subjectIndex + (typeOfClassIndex * subjectOrder.size()) + 4 + typeOfClassIndex + 1);
+                Cell assignmentCell = row.createCell(getAssignmentColumn(assignment, subjectOrder));
                 if (assignment.getGroup() != null) {
                     String[] parts = assignment.getGroup().getGroupId().split("\\.");
                     assignmentCell.setCellValue(parts[parts.length - 1]);
@@ -12,9 +12,14 @@ import org.knowm.xchart.QuickChart;
 import org.knowm.xchart.SwingWrapper;
 import org.knowm.xchart.XYChart;
 import uniovi.assign.genetic.GeneticParameters;
+import uniovi.assign.genetic.population.BestSoFar;
 import uniovi.assign.genetic.population.Individual;
 import uniovi.assign.genetic.population.Population;
+import uniovi.assign.greedy.ConflictHeatmap;
+import uniovi.assign.greedy.EvaluationCache;
+import uniovi.assign.greedy.EvaluationStatistic;
 import uniovi.assign.greedy.GreedyAlgorithm;
+import uniovi.assign.greedy.GreedyEvaluator;
 import uniovi.assign.model.*;
 
 import java.io.*;
@@ -23,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Class in charge of generating real time reports about the status of the algorithm
@@ -43,6 +49,7 @@ public class Reporter {
     private List<Double> meanTotalNumberOfFreeSlotsList = new ArrayList<>();
     private List<Double> meantotalDaysWithLessThan2HoursList = new ArrayList<>();
     private ExcelReporter excelReporter;
+    private BestSoFar bestSoFar;
 
     XYChart fitnessChart = null;
     SwingWrapper<XYChart> fitnessChartWrapper = null;
@@ -63,6 +70,30 @@ public class Reporter {
         this.excelReporter = new ExcelReporter(planification);
     }
 
+    /**
+     * Sets the best individual found by all the populations that evolve at the same time. Once it is set,
+     * it is reported as the best individual instead of the best one of the population received.
+     *
+     * @param bestSoFar best individual found so far.
+     */
+    public void setBestSoFar(BestSoFar bestSoFar) {
+        this.bestSoFar = bestSoFar;
+    }
+
+    /**
+     * Returns the best individual that must be reported.
+     *
+     * @param population population being reported.
+     * @return the best individual found so far if it is set, or the best individual of the population otherwise.
+     */
+    private Individual getBestIndividual(Population population) {
+        Individual best = population.getIndividuals().get(0);
+        if (bestSoFar != null && bestSoFar.get() != null && bestSoFar.get().getFitness() < best.getFitness()) {
+            best = bestSoFar.get();
+        }
+        return best;
+    }
+
     /**
      * Prints an ascii table in console showing statistics of the population passed as parameter.
      *
@@ -70,25 +101,37 @@ public class Reporter {
      * @param generation number of the generation in which the population was generated.
      */
     public void printStatsTable(Population population, int generation) {
-        Individual bestIndividual = population.getIndividuals().get(0);
+        GreedyEvaluator evaluator = GreedyAlgorithm.getInstance().getEvaluator();
+        Set<EvaluationStatistic> statistics = evaluator.getStatistics();
+        Individual bestIndividual = evaluator.completeStatistics(getBestIndividual(population));
         AsciiTable table = new AsciiTable();
         table.addRule();
         table.addRow("Generation", generation);
         table.addRule();
         table.addRow("Best fitness", population.getBestFitness());
         table.addRule();
+        if (bestSoFar != null) {
+            table.addRow("Best fitness of all islands", bestIndividual.getFitness());
+            table.addRule();
+        }
         table.addRow("Average fitness", population.getMeanFitness());
         table.addRule();
         table.addRow("Mean number of collisions", population.getMeanNumberOfCollisions());
         table.addRule();
-        table.addRow("Mean max difference between groups", population.getMeanMaxDifferenceBetweenGroups());
-        table.addRule();
-        table.addRow("Mean sum of difference between groups", population.getMeanSumOfDifferencesBetweenGroups());
-        table.addRule();
-        table.addRow("Mean total number of free slots", population.getMeanTotalNumberOfFreeSlots());
-        table.addRule();
-        table.addRow("Mean total days with 2 hours or less", population.getMeanTotalDaysWithLessThan2Hours());
-        table.addRule();
+        if (statistics.contains(EvaluationStatistic.GROUP_VARIANCES)) {
+            table.addRow("Mean max difference between groups", population.getMeanMaxDifferenceBetweenGroups());
+            table.addRule();
+        }
+        if (statistics.contains(EvaluationStatistic.GROUP_DIFFERENCES)) {
+            table.addRow("Mean sum of difference between groups", population.getMeanSumOfDifferencesBetweenGroups());
+            table.addRule();
+        }
+        if (statistics.contains(EvaluationStatistic.STUDENT_TIMETABLES)) {
+            table.addRow("Mean total number of free slots", population.getMeanTotalNumberOfFreeSlots());
+            table.addRule();
+            table.addRow("Mean total days with 2 hours or less", population.getMeanTotalDaysWithLessThan2Hours());
+            table.addRule();
+        }
         table.addRule();
         table.addRow(null, "BEST INDIVIDUAL");
         table.addRule();
@@ -106,15 +149,59 @@ public class Reporter {
         table.addRule();
         table.addRow("Total days with 2 hours or less", bestIndividual.getTotalDaysWithLowNumOfClasses());
         table.addRule();
+        EvaluationCache cache = evaluator.getCache();
+        if (evaluator.getNumberOfEvaluations() > 0) {
+            table.addRule();
+            table.addRow(null, "EVALUATION");
+            table.addRule();
+            table.addRow("Evaluations ended early", evaluator.getNumberOfRejectedEvaluations());
+            table.addRule();
+            table.addRow("Evaluations ended early (%)", 100.0 * evaluator.getNumberOfRejectedEvaluations() / evaluator.getNumberOfEvaluations());
+            table.addRule();
+            table.addRow("Candidate groups discarded (%)", evaluator.getPlanification().getDiscardedCandidatesRatio() * 100);
+            table.addRule();
+            if (evaluator.getNumberOfCheckpoints() > 0) {
+                table.addRow("Positions resumed from checkpoints (%)", evaluator.getResumedPositionsRatio() * 100);
+                table.addRule();
+            }
+            if (cache != null) {
+                table.addRow("Evaluation cache hit rate (%)", cache.getHitRate() * 100);
+                table.addRule();
+                table.addRow("Evaluation cache evictions", cache.getEvictions());
+                table.addRule();
+            }
+        }
 
 
         System.out.println();
         System.out.println(table.render());
 
         printConflictiveStudents(bestIndividual);
+        if (evaluator.getConflictHeatmap() != null) {
+            printConflictHeatmap(evaluator.getConflictHeatmap());
+        }
         System.out.println();
     }
 
+    /**
+     * Prints a table containing the students that have been left without a group of a subject class in most evaluations.
+     *
+     * @param heatmap counters of the unsolved assignments of the evaluations.
+     */
+    private void printConflictHeatmap(ConflictHeatmap heatmap) {
+        AsciiTable mostConflictive = new AsciiTable();
+        mostConflictive.addRule();
+        mostConflictive.addRow("MOST CONFLICTIVE STUDENT", "SUBJECT CLASS", "TIMES UNSOLVED");
+        mostConflictive.addRule();
+        for (int assignment : heatmap.getMostConflictiveAssignments(10)) {
+            Assignment unsolved = heatmap.getAssignment(assignment);
+            mostConflictive.addRow(unsolved.getStudent().getCompleteName(), unsolved.getSubjectClass().getSubjectName(),
+                    heatmap.getUnsolvedCount(assignment));
+            mostConflictive.addRule();
+        }
+        System.out.println(mostConflictive.render());
+    }
+
     /**
      * Prints a table containing the students that have conflicting assignments of the individual passed as parameter.
      *
@@ -229,7 +316,7 @@ public class Reporter {
      */
     private void updateListsValues(double generation, Population population) {
         generationNumber.add(generation);
-        bestFitnessList.add(population.getBestFitness());
+        bestFitnessList.add(getBestIndividual(population).getFitness());
         meanFitnessList.add(population.getMeanFitness());
         meanCollisionsList.add(population.getMeanNumberOfCollisions());
         meanVarianceList.add(population.getMeanTotalVariance());
@@ -239,6 +326,42 @@ public class Reporter {
         meantotalDaysWithLessThan2HoursList.add(population.getMeanTotalDaysWithLessThan2Hours());
     }
 
+    /**
+     * Returns the values of all the time series about the evolution of the algorithm, so they can be saved and
+     * restored with {@link #restoreTimeSeries(double[][])}.
+     *
+     * @return values of each time series, always in the same order.
+     */
+    public double[][] getTimeSeries() {
+        List<List<Double>> series = getAllTimeSeries();
+        double[][] values = new double[series.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = series.get(i).stream().mapToDouble(Double::doubleValue).toArray();
+        }
+        return values;
+    }
+
+    /**
+     * Replaces the time series about the evolution of the algorithm with the values saved from another execution.
+     *
+     * @param values values of each time series, in the order returned by {@link #getTimeSeries()}.
+     */
+    public void restoreTimeSeries(double[][] values) {
+        List<List<Double>> series = getAllTimeSeries();
+        for (int i = 0; i < series.size() && i < values.length; i++) {
+            series.get(i).clear();
+            for (double value : values[i]) {
+                series.get(i).add(value);
+            }
+        }
+    }
+
+    private List<List<Double>> getAllTimeSeries() {
+        return Arrays.asList(generationNumber, bestFitnessList, meanFitnessList, meanCollisionsList, meanVarianceList,
+                meanMaxDifferenceBetweenGroupsList, meanSumOfDifferencesBetweenGroupsList, meanTotalNumberOfFreeSlotsList,
+                meantotalDaysWithLessThan2HoursList);
+    }
+
     /**
      * Stores all the information about the evolution of the algorithm's execution in a CSV file.
      *
@@ -287,7 +410,7 @@ public class Reporter {
      * @param population last population evaluated by the algorithm.
      */
     public void generateAlgorithmResults(Population population, GeneticParameters parameters) {
-        Individual bestIndividual = population.getIndividuals().get(0);
+        Individual bestIndividual = getBestIndividual(population);
         GreedyAlgorithm.getInstance().execute(bestIndividual);
         SimpleDateFormat format = new SimpleDateFormat("dd-MM-yyy_HH.mm");
         String folderPath = "results-" + format.format(new Date());
@@ -297,6 +420,10 @@ public class Reporter {
         generateStudentFiles(folderPath);
         excelReporter.generateExcelFile(bestIndividual, parameters, folderPath);
         generateUnsolvedAssignmentsFile(bestIndividual, folderPath);
+        ConflictHeatmap heatmap = GreedyAlgorithm.getInstance().getEvaluator().getConflictHeatmap();
+        if (heatmap != null) {
+            generateConflictHeatmapFile(heatmap, folderPath);
+        }
         System.out.println("RESULTS GENERATED");
     }
 
@@ -365,6 +492,30 @@ public class Reporter {
         }
     }
 
+    /**
+     * Generates a csv file containing how many times each student has been left without a group of a subject class,
+     * from the most conflictive one.
+     *
+     * @param heatmap    counters of the unsolved assignments of the evaluations.
+     * @param folderPath folder in which the results are generated.
+     */
+    private void generateConflictHeatmapFile(ConflictHeatmap heatmap, String folderPath) {
+        try {
+            PrintWriter writer = new PrintWriter(folderPath + "/conflictHeatmap.csv", "UTF-8");
+            writer.println("student;subject class;times unsolved");
+            for (int assignment : heatmap.getMostConflictiveAssignments(Integer.MAX_VALUE)) {
+                Assignment unsolved = heatmap.getAssignment(assignment);
+                writer.println(unsolved.getStudent().getCompleteName() + ";" + unsolved.getSubjectClass().getSubjectName()
+                        + ";" + heatmap.getUnsolvedCount(assignment));
+            }
+            writer.close();
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        } catch (UnsupportedEncodingException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Generate a file for each student containing his final assignments and timetable.
      */